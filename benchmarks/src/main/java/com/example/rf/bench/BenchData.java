@@ -0,0 +1,51 @@
+package com.example.rf.bench;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Deterministic inputs shared by the benchmarks. */
+final class BenchData {
+  private BenchData() {}
+
+  /** A JSON object {@code {"items":[{...}, ...]}} of roughly {@code bytes} UTF-8 bytes. */
+  static String jsonDocument(int bytes) {
+    StringBuilder sb = new StringBuilder(bytes + 256);
+    sb.append("{\"meta\":{\"source\":\"bench\",\"version\":1},\"items\":[");
+    for (int i = 0; sb.length() < bytes; i++) {
+      if (i > 0) sb.append(',');
+      sb.append("{\"id\":").append(i)
+          .append(",\"name\":\"item-").append(i)
+          .append("\",\"price\":").append(i % 1000).append('.').append(i % 100)
+          .append(",\"active\":").append(i % 3 != 0)
+          .append(",\"tags\":[\"t").append(i % 7).append("\",\"t").append(i % 11).append("\"]}");
+    }
+    return sb.append("]}").toString();
+  }
+
+  /** Template text with {@code count} distinct ${vN} placeholders between literal runs. */
+  static String template(int count) {
+    StringBuilder sb = new StringBuilder(count * 24);
+    sb.append('{');
+    for (int i = 0; i < count; i++) {
+      if (i > 0) sb.append(',');
+      sb.append("\"field").append(i).append("\":\"${v").append(i).append("}\"");
+    }
+    return sb.append('}').toString();
+  }
+
+  static Map<String, String> vars(int count) {
+    Map<String, String> m = new LinkedHashMap<>();
+    for (int i = 0; i < count; i++) m.put("v" + i, "value-" + i);
+    return m;
+  }
+
+  static int freePort() {
+    try (ServerSocket s = new ServerSocket(0)) {
+      return s.getLocalPort();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package com.example.rf.bench;
+
+import com.example.rf.keywords.ExcelKeywords;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link ExcelKeywords} reads and writes on a generated workbook, in the full POI model (edit)
+ * and in the streaming modes (read / write).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class ExcelBench {
+  private static final String SHEET = "Data";
+
+  @Param({"100", "10000"})
+  int rows;
+
+  final ExcelKeywords excel = new ExcelKeywords();
+  Path dir;
+  Path source;
+  Path target;
+  List<List<Object>> data;
+
+  @Setup
+  public void setup() throws IOException {
+    dir = Files.createTempDirectory("rf-excel-bench");
+    source = dir.resolve("source.xlsx");
+    target = dir.resolve("target.xlsx");
+    data = new ArrayList<>(rows);
+    data.add(List.of("id", "symbol", "qty", "price", "active"));
+    for (int i = 1; i < rows; i++) {
+      data.add(List.of(i, "SYM" + (i % 50), i % 1000, i / 7.0, i % 3 != 0));
+    }
+    excel.openExcelForWriting(source.toString(), 100);
+    excel.writeRows(SHEET, data, 1, 1);
+    excel.saveExcel();
+    excel.closeExcel();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    excel.closeExcel();
+    try (Stream<Path> files = Files.walk(dir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  public List<List<String>> readRangeEdit() {
+    excel.openExcel(source.toString());
+    try {
+      return excel.readRange(SHEET, "");
+    } finally {
+      excel.closeExcel();
+    }
+  }
+
+  @Benchmark
+  public List<List<String>> readRangeStreaming() {
+    excel.openExcelReadOnly(source.toString());
+    try {
+      return excel.readRange(SHEET, "");
+    } finally {
+      excel.closeExcel();
+    }
+  }
+
+  @Benchmark
+  public int writeRowsEdit() throws IOException {
+    Files.deleteIfExists(target);
+    excel.openExcel(target.toString());
+    try {
+      int n = excel.writeRows(SHEET, data, 1, 1);
+      excel.saveExcel();
+      return n;
+    } finally {
+      excel.closeExcel();
+    }
+  }
+
+  @Benchmark
+  public int writeRowsStreaming() {
+    excel.openExcelForWriting(target.toString(), 100);
+    try {
+      int n = excel.writeRows(SHEET, data, 1, 1);
+      excel.saveExcel();
+      return n;
+    } finally {
+      excel.closeExcel();
+    }
+  }
+}
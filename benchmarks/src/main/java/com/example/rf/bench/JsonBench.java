@@ -0,0 +1,58 @@
+package com.example.rf.bench;
+
+import com.example.rf.keywords.JsonKeywords;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** {@link JsonKeywords} JsonPath, merge and pretty-print on 1 KB to 10 MB documents. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class JsonBench {
+  @Param({"1024", "102400", "1048576", "10485760"})
+  int bytes;
+
+  final JsonKeywords json = new JsonKeywords();
+  String doc;
+  String overlay;
+
+  @Setup
+  public void setup() {
+    doc = BenchData.jsonDocument(bytes);
+    overlay = "{\"meta\":{\"version\":2,\"patched\":true},\"extra\":[1,2,3]}";
+  }
+
+  @Benchmark
+  public String jsonPathFirst() {
+    return json.jsonPath(doc, "$.items[0].name");
+  }
+
+  @Benchmark
+  public String jsonPathFilter() {
+    return json.jsonPath(doc, "$.items[?(@.price > 990)].id");
+  }
+
+  @Benchmark
+  public String mergeObjects() throws Exception {
+    return json.mergeObjects(doc, overlay);
+  }
+
+  @Benchmark
+  public String pretty() throws Exception {
+    return json.pretty(doc);
+  }
+}
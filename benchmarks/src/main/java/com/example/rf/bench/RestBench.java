@@ -0,0 +1,82 @@
+package com.example.rf.bench;
+
+import com.example.rf.keywords.RestKeywords;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RestKeywords#extractJsonPath} against an in-process HTTP stub: lookups on a stored
+ * response, and the full GET plus lookup round-trip, on both HTTP engines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RestBench {
+  @Param({"restassured", "httpclient"})
+  String engine;
+
+  @Param({"1024", "102400"})
+  int bytes;
+
+  final RestKeywords rest = new RestKeywords();
+  HttpServer stub;
+  ExecutorService stubThreads;
+
+  @Setup
+  public void setup() throws Exception {
+    byte[] body = BenchData.jsonDocument(bytes).getBytes(StandardCharsets.UTF_8);
+    stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    stub.createContext("/doc", ex -> {
+      ex.getResponseHeaders().add("Content-Type", "application/json");
+      ex.sendResponseHeaders(200, body.length);
+      try (OutputStream out = ex.getResponseBody()) { out.write(body); }
+    });
+    stubThreads = Executors.newFixedThreadPool(4);
+    stub.setExecutor(stubThreads);
+    stub.start();
+
+    rest.createApiSession("bench", "http://127.0.0.1:" + stub.getAddress().getPort(), Map.of(), engine);
+    rest.get("bench", "/doc", Map.of(), "doc");
+  }
+
+  @TearDown
+  public void tearDown() {
+    rest.clearCallerNamespace();
+    stub.stop(0);
+    // HttpServer.stop leaves its executor running; its non-daemon threads would keep the fork alive
+    stubThreads.shutdownNow();
+  }
+
+  @Benchmark
+  public String extractStored() {
+    return rest.extractJsonPath("doc", "$.items[0].name");
+  }
+
+  @Benchmark
+  public String getAndExtract() {
+    rest.get("bench", "/doc", Map.of(), "rt");
+    return rest.extractJsonPath("rt", "$.meta.version");
+  }
+}
@@ -0,0 +1,88 @@
+package com.example.rf.bench;
+
+import com.example.rf.KeywordServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full XML-RPC round-trip through {@link KeywordServer}: request encoding, Jetty, the namespace
+ * filter, lazy library dispatch, metrics and response decoding. The server runs in the benchmark
+ * fork and dies with it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServerBench {
+  private static final String RUN_KEYWORD = "<?xml version=\"1.0\"?><methodCall><methodName>run_keyword</methodName>"
+      + "<params><param><value><string>%s</string></value></param>"
+      + "<param><value><array><data>%s</data></array></value></param></params></methodCall>";
+
+  HttpClient client;
+  HttpRequest jsonPath;
+  HttpRequest keywordNames;
+
+  @Setup
+  public void setup() throws Exception {
+    int port = BenchData.freePort();
+    System.setProperty("rf.host", "127.0.0.1");
+    System.setProperty("rf.port", String.valueOf(port));
+    KeywordServer.main(new String[0]);
+
+    String base = "http://127.0.0.1:" + port;
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(5)).build();
+    String doc = "{\"a\":{\"b\":[1,2,3]},\"name\":\"bench\"}";
+    jsonPath = xmlRpc(base + "/json", String.format(RUN_KEYWORD, "Json Path",
+        arg(doc) + arg("$.a.b[1]")));
+    keywordNames = xmlRpc(base + "/json",
+        "<?xml version=\"1.0\"?><methodCall><methodName>get_keyword_names</methodName><params/></methodCall>");
+    // first call builds the lazy /json library; keep that out of the measurement
+    send(keywordNames);
+  }
+
+  @Benchmark
+  public String runKeyword() throws Exception {
+    return send(jsonPath);
+  }
+
+  @Benchmark
+  public String getKeywordNames() throws Exception {
+    return send(keywordNames);
+  }
+
+  private String send(HttpRequest req) throws Exception {
+    HttpResponse<String> r = client.send(req, HttpResponse.BodyHandlers.ofString());
+    if (r.statusCode() != 200 || r.body().contains(">FAIL<")) {
+      throw new IllegalStateException("XML-RPC call failed: " + r.statusCode() + " " + r.body());
+    }
+    return r.body();
+  }
+
+  private static HttpRequest xmlRpc(String url, String body) {
+    return HttpRequest.newBuilder(URI.create(url))
+        .header("Content-Type", "text/xml")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+  }
+
+  private static String arg(String s) {
+    return "<value><string>" + s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;") + "</string></value>";
+  }
+}
@@ -0,0 +1,64 @@
+package com.example.rf.bench;
+
+import com.example.rf.keywords.SqlKeywords;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** {@link SqlKeywords#select} and {@link SqlKeywords#execute} against an embedded H2 database. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlBench {
+  private static final String POOL = "bench";
+
+  @Param({"10", "1000", "10000"})
+  int rows;
+
+  final SqlKeywords sql = new SqlKeywords();
+  int next;
+
+  @Setup
+  public void setup() {
+    sql.connect(POOL, "jdbc:h2:mem:bench" + rows + ";DB_CLOSE_DELAY=-1", "sa", "");
+    sql.execute(POOL, "CREATE TABLE orders(id INT PRIMARY KEY, sym VARCHAR(16), qty INT, px DECIMAL(12,4))");
+    sql.execute(POOL, "INSERT INTO orders SELECT X, 'SYM' || MOD(X, 50), MOD(X, 1000), X / 7.0 FROM SYSTEM_RANGE(1, " + rows + ")");
+  }
+
+  @TearDown
+  public void tearDown() {
+    sql.execute(POOL, "DROP TABLE orders");
+    sql.close(POOL);
+  }
+
+  @Benchmark
+  public List<Map<String, Object>> selectAll() {
+    return sql.select(POOL, "SELECT id, sym, qty, px FROM orders");
+  }
+
+  @Benchmark
+  public List<Map<String, Object>> selectByKey() {
+    return sql.select(POOL, "SELECT id, sym, qty, px FROM orders WHERE id = " + (next++ % rows + 1));
+  }
+
+  @Benchmark
+  public int executeUpdate() {
+    return sql.execute(POOL, "UPDATE orders SET qty = qty + 1 WHERE id = " + (next++ % rows + 1));
+  }
+}
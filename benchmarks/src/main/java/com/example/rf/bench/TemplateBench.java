@@ -0,0 +1,43 @@
+package com.example.rf.bench;
+
+import com.example.rf.keywords.core.TemplateUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** {@link TemplateUtils#resolve} as the variable count grows. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateBench {
+  @Param({"10", "100", "1000"})
+  int variables;
+
+  String template;
+  Map<String, String> vars;
+
+  @Setup
+  public void setup() {
+    template = BenchData.template(variables);
+    vars = BenchData.vars(variables);
+  }
+
+  @Benchmark
+  public String resolve() {
+    return TemplateUtils.resolve(template, vars);
+  }
+}
@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+# Time from JVM launch to the first answered keyword, with and without the AppCDS archive.
+# Build first: mvn -B -DskipTests -Pcds package
+# Usage: scripts/time_first_keyword.sh [runs=5] [library=json]
+set -euo pipefail
+
+RUNS="${1:-5}"
+LIB="${2:-json}"
+PORT="${RF_PORT:-18271}"
+JAR="${JAR:-server/target/rf-keywords-rbc-1.0.0.jar}"
+JSA="${JSA:-${JAR%.jar}.jsa}"
+CALL='<?xml version="1.0"?><methodCall><methodName>get_keyword_names</methodName><params/></methodCall>'
+
+now_ms() { date +%s%3N; }
+
+first_keyword_ms() {
+  local t0 pid
+  t0=$(now_ms)
+  java "$@" -Drf.host=127.0.0.1 -Drf.port="${PORT}" -jar "${JAR}" >/dev/null 2>&1 &
+  pid=$!
+  until curl -sf -H 'Content-Type: text/xml' --data "${CALL}" "http://127.0.0.1:${PORT}/${LIB}" >/dev/null 2>&1; do
+    sleep 0.01
+  done
+  echo $(( $(now_ms) - t0 ))
+  kill "${pid}"; wait "${pid}" 2>/dev/null || true
+}
+
+run() {
+  local label="$1"; shift
+  local total=0 ms
+  for _ in $(seq 1 "${RUNS}"); do
+    ms=$(first_keyword_ms "$@")
+    total=$(( total + ms ))
+    printf '%-8s %6d ms\n' "${label}" "${ms}"
+  done
+  printf '%-8s %6d ms (mean of %d)\n' "${label}" $(( total / RUNS )) "${RUNS}"
+}
+
+run "no-cds" -Xshare:auto
+if [ -f "${JSA}" ]; then
+  run "appcds" -XX:SharedArchiveFile="${JSA}"
+else
+  echo "No archive at ${JSA}; build with -Pcds to compare"
+fi
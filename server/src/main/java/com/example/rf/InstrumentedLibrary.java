@@ -0,0 +1,60 @@
+package com.example.rf;
+
+import com.example.rf.keywords.core.KeywordMetrics;
+import org.robotframework.javalib.util.KeywordNameNormalizer;
+import org.robotframework.remoteserver.library.DefaultRemoteLibraryFactory;
+import org.robotframework.remoteserver.library.RemoteLibrary;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decorates a keyword library with per-keyword {@link KeywordMetrics} timers. RemoteServer
+ * uses {@link RemoteLibrary} instances as-is, so the wrapped library keeps its keyword names,
+ * arguments and docs while every call (including /batch steps) is measured.
+ */
+final class InstrumentedLibrary implements RemoteLibrary {
+  private static final KeywordNameNormalizer NORMALIZER = new KeywordNameNormalizer();
+
+  private final String library;
+  private final RemoteLibrary delegate;
+  /** Keyed by the exact name Robot sends and by its normalized form; read-only after construction. */
+  private final Map<String, KeywordMetrics.Timer> timers = new HashMap<>();
+
+  private InstrumentedLibrary(String library, Object impl) {
+    this.library = library;
+    this.delegate = new DefaultRemoteLibraryFactory().createRemoteLibrary(impl);
+    for (String kw : delegate.getKeywordNames()) {
+      KeywordMetrics.Timer t = KeywordMetrics.timer(library, kw);
+      timers.put(kw, t);
+      timers.put(NORMALIZER.normalize(kw), t);
+    }
+  }
+
+  static RemoteLibrary wrap(String library, Object impl) { return new InstrumentedLibrary(library, impl); }
+
+  @Override
+  public Object runKeyword(String name, List<String> args, Map<String, Object> kwargs) throws Throwable {
+    KeywordMetrics.Timer t = timers.get(name);
+    if (t == null) t = timers.get(NORMALIZER.normalize(name));
+    if (t == null) t = KeywordMetrics.timer(library, "_unknown");
+    long t0 = t.start();
+    boolean failed = true;
+    try {
+      Object v = delegate.runKeyword(name, args, kwargs);
+      failed = false;
+      return v;
+    } finally {
+      t.stop(t0, failed);
+    }
+  }
+
+  @Override public List<String> getKeywordNames() { return delegate.getKeywordNames(); }
+  @Override public List<String> getKeywordArguments(String name) { return delegate.getKeywordArguments(name); }
+  @Override public String getKeywordDocumentation(String name) { return delegate.getKeywordDocumentation(name); }
+  @Override public List<String> getKeywordTags(String name) { return delegate.getKeywordTags(name); }
+  @Override public List<String> getKeywordTypes(String name) { return delegate.getKeywordTypes(name); }
+  @Override public String getName() { return delegate.getName(); }
+  @Override public Object getImplementation() { return delegate.getImplementation(); }
+}
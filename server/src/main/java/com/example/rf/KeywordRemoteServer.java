@@ -0,0 +1,82 @@
+package com.example.rf;
+
+import jakarta.servlet.DispatcherType;
+import org.eclipse.jetty.servlet.FilterHolder;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.robotframework.remoteserver.RemoteServer;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * RemoteServer that also mounts {@link MetricsServlet} at /metrics and {@link ReadyServlet} at
+ * /ready next to the library paths, and binds the caller namespace for every request via
+ * {@link NamespaceFilter}.
+ */
+final class KeywordRemoteServer extends RemoteServer {
+  /** Lazy libraries by name (rest, json, ...), as reported on /ready. */
+  private final Map<String, LazyLibrary> lazy = new ConcurrentSkipListMap<>();
+  private final ReadyServlet ready = new ReadyServlet(lazy);
+
+  KeywordRemoteServer(String host, int port) {
+    super(host, port);
+    ServletContextHandler ctx = (ServletContextHandler) server.getHandler();
+    ctx.addServlet(new ServletHolder(new MetricsServlet()), "/metrics");
+    ctx.addServlet(new ServletHolder(ready), "/ready");
+    ctx.addFilter(new FilterHolder(new NamespaceFilter()), "/*", EnumSet.of(DispatcherType.REQUEST));
+  }
+
+  /** Maps {@code lib} at {@code path}; it is built on its first keyword call or by {@link #preload}. */
+  void putLazyLibrary(String path, LazyLibrary lib) {
+    putLibrary(path, lib);
+    lazy.put(lib.library(), lib);
+  }
+
+  List<LazyLibrary> lazyLibraries() { return new ArrayList<>(lazy.values()); }
+
+  boolean isReady() { return ready.isReady(); }
+
+  /**
+   * Builds the named libraries ({@code rest,json}, or {@code all}) on a background thread and flips
+   * /ready once they are done; with nothing to preload the server is ready immediately. A library
+   * that fails to build is logged and left to fail again on its first call.
+   */
+  Thread preload(String names) {
+    List<LazyLibrary> todo = select(names);
+    Thread t = new Thread(() -> {
+      for (LazyLibrary lib : todo) {
+        try {
+          lib.initialize();
+        } catch (RuntimeException | Error e) {
+          System.err.printf("Preloading %s failed: %s%n", lib.library(), e);
+        }
+      }
+      ready.markReady();
+      System.out.println("Keyword server ready");
+    }, "rf-preload");
+    t.setDaemon(true);
+    t.start();
+    return t;
+  }
+
+  private List<LazyLibrary> select(String names) {
+    String n = names == null ? "" : names.trim().toLowerCase(Locale.ROOT);
+    if (n.isEmpty() || "none".equals(n)) return List.of();
+    if ("all".equals(n) || "*".equals(n)) return lazyLibraries();
+    List<LazyLibrary> out = new ArrayList<>();
+    for (String name : n.split(",")) {
+      String key = name.trim();
+      if (key.startsWith("/")) key = key.substring(1);
+      if (key.isEmpty()) continue;
+      LazyLibrary lib = lazy.get(key);
+      if (lib == null) throw new IllegalArgumentException("No lazy library named: " + name.trim());
+      out.add(lib);
+    }
+    return out;
+  }
+}
@@ -7,6 +7,16 @@ import com.example.rf.keywords.JsonKeywords;
 import com.example.rf.keywords.SqlKeywords;
 import com.example.rf.keywords.ExcelKeywords;
 import com.example.rf.keywords.FixKeywords;
+import com.example.rf.keywords.FixSimKeywords;
+import com.example.rf.keywords.BatchKeywords;
+import com.example.rf.keywords.MetricsKeywords;
+import com.example.rf.keywords.StubKeywords;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 
 public final class KeywordServer {
   public static void main(String[] args) throws Exception {
@@ -14,18 +24,71 @@ public final class KeywordServer {
                        System.getenv().getOrDefault("RF_PORT", "8270")));
     final String host = System.getProperty("rf.host",
                        System.getenv().getOrDefault("RF_HOST", "0.0.0.0"));
+    // libraries to build right after start (rest,json,... or all); /ready answers 200 once they are
+    final String preload = System.getProperty("rf.preload",
+                       System.getenv().getOrDefault("RF_PRELOAD", ""));
+    // -Drf.cds.train=true: build everything, exercise each path once and exit (see the cds profile)
+    final boolean train = Boolean.getBoolean("rf.cds.train");
 
     RemoteServer.configureLogging();
-    RemoteServer server = new RemoteServer(host, port);
+    // also serves Prometheus text at GET /metrics, readiness at GET /ready and binds ?ns= caller namespaces
+    KeywordRemoteServer server = new KeywordRemoteServer(host, port);
 
-    // IMPORTANT: register INSTANCES (not Class objects)
-    server.putLibrary("/rest",  new RestKeywords());
-    server.putLibrary("/json",  new JsonKeywords());
-    server.putLibrary("/sql",   new SqlKeywords());
-    server.putLibrary("/excel", new ExcelKeywords());
-    server.putLibrary("/fix",   new FixKeywords());
+    // IMPORTANT: register INSTANCES (not Class objects); each is timed per keyword.
+    // Libraries are built on their first call so a /rest-only run never loads POI or QuickFIX/J.
+    server.putLazyLibrary("/rest",  LazyLibrary.instrumented("rest",  RestKeywords.class,  RestKeywords::new));
+    server.putLazyLibrary("/json",  LazyLibrary.instrumented("json",  JsonKeywords.class,  JsonKeywords::new));
+    server.putLazyLibrary("/sql",   LazyLibrary.instrumented("sql",   SqlKeywords.class,   SqlKeywords::new));
+    server.putLazyLibrary("/excel", LazyLibrary.instrumented("excel", ExcelKeywords.class, ExcelKeywords::new));
+    server.putLazyLibrary("/fix",   LazyLibrary.instrumented("fix",   FixKeywords.class,   FixKeywords::new));
+    // in-process FIX acceptor for suites and benchmarks without a counterparty
+    server.putLazyLibrary("/fixsim", LazyLibrary.instrumented("fixsim", FixSimKeywords.class, FixSimKeywords::new));
+    // in-process HTTP stub / echo / record-replay server for offline REST suites
+    server.putLazyLibrary("/stub",  LazyLibrary.instrumented("stub",  StubKeywords.class,  StubKeywords::new));
+    server.putLibrary("/stats", new MetricsKeywords());
+    // runs (library, keyword, args) steps against the instances above in one round-trip
+    server.putLazyLibrary("/batch", LazyLibrary.plain("batch", BatchKeywords.class, () -> new BatchKeywords(server)));
 
-    System.out.printf("Keyword server started at http://%s:%d%n", host, port);
     server.start();
+    // rf.port=0 binds a free port (the cds training run does); report the one actually bound
+    System.out.printf("Keyword server started at http://%s:%d%n", host, server.getLocalPort());
+    Thread warm = server.preload(train ? "all" : preload);
+
+    if (train) {
+      warm.join();
+      String base = "http://127.0.0.1:" + server.getLocalPort();
+      for (LazyLibrary lib : server.lazyLibraries()) {
+        xmlRpc(base + "/" + lib.library(), "get_keyword_names");
+      }
+      get(base + "/ready");
+      get(base + "/metrics");
+      server.stop();
+      // the CDS archive (-XX:ArchiveClassesAtExit) is written as the JVM exits
+      System.exit(0);
+    }
+  }
+
+  private static void xmlRpc(String url, String method) throws Exception {
+    byte[] body = ("<?xml version=\"1.0\"?><methodCall><methodName>" + method
+        + "</methodName><params/></methodCall>").getBytes(StandardCharsets.UTF_8);
+    HttpURLConnection c = (HttpURLConnection) new URL(url).openConnection();
+    c.setRequestMethod("POST");
+    c.setDoOutput(true);
+    c.setRequestProperty("Content-Type", "text/xml");
+    try (OutputStream out = c.getOutputStream()) { out.write(body); }
+    drain(c);
+  }
+
+  private static void get(String url) throws Exception {
+    drain((HttpURLConnection) new URL(url).openConnection());
+  }
+
+  private static void drain(HttpURLConnection c) throws Exception {
+    int code = c.getResponseCode();
+    try (InputStream in = code >= 400 ? c.getErrorStream() : c.getInputStream()) {
+      if (in != null) in.readAllBytes();
+    } finally {
+      c.disconnect();
+    }
   }
 }
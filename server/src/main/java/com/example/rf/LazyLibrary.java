@@ -0,0 +1,80 @@
+package com.example.rf;
+
+import org.robotframework.remoteserver.library.DefaultRemoteLibraryFactory;
+import org.robotframework.remoteserver.library.RemoteLibrary;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Defers constructing a keyword library until its path is first used. Static initializers of the
+ * keyword classes (Jackson mappers, EnvUtils config, RestAssured/Groovy, POI, QuickFIX/J) then only
+ * run for the libraries a suite actually imports. {@link #getName()} is answered from the class
+ * name so mapping the path and the GET listing page do not trigger construction.
+ */
+final class LazyLibrary implements RemoteLibrary {
+  enum State { LAZY, INITIALIZING, READY, FAILED }
+
+  private final String library;
+  private final Class<?> type;
+  private final Supplier<RemoteLibrary> factory;
+  private volatile RemoteLibrary delegate;
+  private volatile State state = State.LAZY;
+  private volatile long initMillis = -1;
+
+  private LazyLibrary(String library, Class<?> type, Supplier<RemoteLibrary> factory) {
+    this.library = library;
+    this.type = type;
+    this.factory = factory;
+  }
+
+  /** Constructs {@code impl} on first use and times every keyword via {@link InstrumentedLibrary}. */
+  static LazyLibrary instrumented(String library, Class<?> type, Supplier<?> impl) {
+    return new LazyLibrary(library, type, () -> InstrumentedLibrary.wrap(library, impl.get()));
+  }
+
+  /** Constructs {@code impl} on first use without per-keyword timers. */
+  static LazyLibrary plain(String library, Class<?> type, Supplier<?> impl) {
+    return new LazyLibrary(library, type, () -> new DefaultRemoteLibraryFactory().createRemoteLibrary(impl.get()));
+  }
+
+  String library() { return library; }
+  State state() { return state; }
+  /** Construction time of the library in ms, or -1 while it has not been built. */
+  long initMillis() { return initMillis; }
+
+  /** Builds the library now if it has not been built yet; a failed attempt is retried on the next call. */
+  RemoteLibrary initialize() {
+    RemoteLibrary d = delegate;
+    if (d != null) return d;
+    synchronized (this) {
+      if (delegate != null) return delegate;
+      state = State.INITIALIZING;
+      long t0 = System.nanoTime();
+      try {
+        d = factory.get();
+      } catch (RuntimeException | Error e) {
+        state = State.FAILED;
+        throw e;
+      }
+      initMillis = (System.nanoTime() - t0) / 1_000_000L;
+      delegate = d;
+      state = State.READY;
+      return d;
+    }
+  }
+
+  @Override
+  public Object runKeyword(String name, List<String> args, Map<String, Object> kwargs) throws Throwable {
+    return initialize().runKeyword(name, args, kwargs);
+  }
+
+  @Override public List<String> getKeywordNames() { return initialize().getKeywordNames(); }
+  @Override public List<String> getKeywordArguments(String name) { return initialize().getKeywordArguments(name); }
+  @Override public String getKeywordDocumentation(String name) { return initialize().getKeywordDocumentation(name); }
+  @Override public List<String> getKeywordTags(String name) { return initialize().getKeywordTags(name); }
+  @Override public List<String> getKeywordTypes(String name) { return initialize().getKeywordTypes(name); }
+  @Override public String getName() { return type.getName(); }
+  @Override public Object getImplementation() { return initialize().getImplementation(); }
+}
@@ -0,0 +1,23 @@
+package com.example.rf;
+
+import com.example.rf.keywords.core.KeywordMetrics;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/** Serves {@link KeywordMetrics#render()} for Prometheus scrapes (GET /metrics). */
+final class MetricsServlet extends HttpServlet {
+  private static final long serialVersionUID = 1L;
+
+  @Override
+  protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    byte[] body = KeywordMetrics.render().getBytes(StandardCharsets.UTF_8);
+    resp.setStatus(HttpServletResponse.SC_OK);
+    resp.setContentType("text/plain; version=0.0.4; charset=utf-8");
+    resp.setContentLength(body.length);
+    resp.getOutputStream().write(body);
+  }
+}
@@ -0,0 +1,46 @@
+package com.example.rf;
+
+import com.example.rf.keywords.core.CallerContext;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binds {@link CallerContext} for the request. Robot passes the namespace on the import URL,
+ * e.g. {@code Library  Remote  http://host:8270/rest?ns=${PABOTEXECUTIONPOOLID}}.
+ */
+final class NamespaceFilter implements Filter {
+  static final String HEADER = "X-RF-Namespace";
+
+  @Override
+  public void doFilter(ServletRequest req, ServletResponse resp, FilterChain chain) throws IOException, ServletException {
+    String ns = null;
+    if (req instanceof HttpServletRequest) {
+      HttpServletRequest http = (HttpServletRequest) req;
+      ns = http.getHeader(HEADER);
+      if (ns == null) ns = fromQuery(http.getQueryString());
+    }
+    CallerContext.set(ns);
+    try {
+      chain.doFilter(req, resp);
+    } finally {
+      CallerContext.clear();
+    }
+  }
+
+  /** Parse the query by hand; getParameter() may consume the XML-RPC POST body. */
+  private static String fromQuery(String q) {
+    if (q == null) return null;
+    for (String pair : q.split("&")) {
+      if (pair.startsWith("ns=")) return URLDecoder.decode(pair.substring(3), StandardCharsets.UTF_8);
+    }
+    return null;
+  }
+}
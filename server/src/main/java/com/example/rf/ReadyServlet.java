@@ -0,0 +1,46 @@
+package com.example.rf;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Readiness probe (GET /ready): 503 until the server is listening and every preloaded library is
+ * built, then 200. The body lists each lazy library with its state and construction time; it is
+ * written by hand so probing does not load Jackson.
+ */
+final class ReadyServlet extends HttpServlet {
+  private static final long serialVersionUID = 1L;
+
+  private final transient Map<String, LazyLibrary> libraries;
+  private volatile boolean ready;
+
+  ReadyServlet(Map<String, LazyLibrary> libraries) { this.libraries = libraries; }
+
+  void markReady() { ready = true; }
+  boolean isReady() { return ready; }
+
+  @Override
+  protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    StringBuilder sb = new StringBuilder(256);
+    sb.append("{\"ready\":").append(ready).append(",\"libraries\":{");
+    boolean first = true;
+    for (Map.Entry<String, LazyLibrary> e : libraries.entrySet()) {
+      if (!first) sb.append(',');
+      first = false;
+      LazyLibrary lib = e.getValue();
+      sb.append('"').append(e.getKey()).append("\":{\"state\":\"")
+          .append(lib.state().name().toLowerCase()).append("\",\"initMs\":").append(lib.initMillis()).append('}');
+    }
+    sb.append("}}");
+    byte[] body = sb.toString().getBytes(StandardCharsets.UTF_8);
+    resp.setStatus(ready ? HttpServletResponse.SC_OK : HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    resp.setContentType("application/json; charset=utf-8");
+    resp.setContentLength(body.length);
+    resp.getOutputStream().write(body);
+  }
+}
@@ -0,0 +1,204 @@
+package com.example.rf.keywords;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.robotframework.javalib.annotation.ArgumentNames;
+import org.robotframework.javalib.annotation.RobotKeyword;
+import org.robotframework.javalib.annotation.RobotKeywords;
+import org.robotframework.remoteserver.RemoteServer;
+import org.robotframework.remoteserver.library.RemoteLibrary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs an ordered list of (library, keyword, args) steps against the libraries already
+ * registered on the {@link RemoteServer}, so a whole assertion block costs one XML-RPC
+ * round-trip instead of one per keyword.
+ *
+ * <p>Steps may be given as a list of lists ({@code [library, keyword, arg1, ...]}), a list of
+ * dicts ({@code {library, keyword, args}}), or the JSON form of either. Library names accept
+ * {@code /rest}, {@code rest} or {@code REST}; keyword names accept the Robot form
+ * ({@code Status Should Be}) as well as the Java method name.
+ */
+@RobotKeywords
+public class BatchKeywords {
+  public static final String ROBOT_LIBRARY_SCOPE = "GLOBAL";
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final String SELF = "/batch";
+
+  private final RemoteServer server;
+
+  public BatchKeywords(RemoteServer server) { this.server = server; }
+
+  @RobotKeyword("Run steps in one round-trip; returns per-step results. mode: fail-fast (default) or continue.")
+  @ArgumentNames({"steps", "mode=fail-fast"})
+  public List<Map<String, Object>> runBatch(Object steps, String mode) {
+    boolean failFast = parseMode(mode);
+    List<Step> plan = coerceSteps(steps);
+    Map<String, RemoteLibrary> libs = server.getLibraryMap();
+
+    List<Map<String, Object>> out = new ArrayList<>(plan.size());
+    boolean stopped = false;
+    for (int i = 0; i < plan.size(); i++) {
+      Step s = plan.get(i);
+      Map<String, Object> res = new LinkedHashMap<>();
+      res.put("index", i);
+      res.put("library", s.library);
+      res.put("keyword", s.keyword);
+      if (stopped) {
+        res.put("status", "NOT RUN");
+        res.put("result", "");
+        res.put("error", "");
+        res.put("elapsedMs", 0L);
+        out.add(res);
+        continue;
+      }
+      long t0 = System.nanoTime();
+      try {
+        Object v = library(libs, s.library).runKeyword(s.keyword, s.remoteArgs(), null);
+        res.put("status", "PASS");
+        res.put("result", v == null ? "" : v);
+        res.put("error", "");
+      } catch (Throwable t) {
+        res.put("status", "FAIL");
+        res.put("result", "");
+        res.put("error", describe(t));
+        if (failFast) stopped = true;
+      }
+      res.put("elapsedMs", (System.nanoTime() - t0) / 1_000_000L);
+      out.add(res);
+    }
+    return out;
+  }
+
+  @RobotKeyword("Run with default fail-fast mode.")
+  @ArgumentNames({"steps"})
+  public List<Map<String, Object>> runBatch(Object steps) {
+    return runBatch(steps, "fail-fast");
+  }
+
+  @RobotKeyword("Run steps and fail if any step failed; returns the list of step return values.")
+  @ArgumentNames({"steps", "mode=fail-fast"})
+  public List<Object> runBatchShouldPass(Object steps, String mode) {
+    List<Map<String, Object>> results = runBatch(steps, mode);
+    List<Object> values = new ArrayList<>(results.size());
+    StringBuilder failures = new StringBuilder();
+    for (Map<String, Object> r : results) {
+      values.add(r.get("result"));
+      if ("FAIL".equals(r.get("status"))) {
+        failures.append("\n  #").append(r.get("index")).append(' ')
+            .append(r.get("library")).append(' ').append(r.get("keyword"))
+            .append(": ").append(r.get("error"));
+      }
+    }
+    if (failures.length() > 0) throw new AssertionError("Batch failed:" + failures);
+    return values;
+  }
+
+  @RobotKeyword("Run steps with default fail-fast mode and fail if any step failed.")
+  @ArgumentNames({"steps"})
+  public List<Object> runBatchShouldPass(Object steps) {
+    return runBatchShouldPass(steps, "fail-fast");
+  }
+
+  // ---------- Internals ----------
+
+  private static final class Step {
+    final String library;
+    final String keyword;
+    final List<Object> args;
+    Step(String library, String keyword, List<Object> args) {
+      this.library = library; this.keyword = keyword; this.args = args;
+    }
+
+    /** RemoteLibrary declares List&lt;String&gt;, but the servlet hands it XML-RPC values of any type too. */
+    @SuppressWarnings("unchecked")
+    List<String> remoteArgs() { return (List<String>) (List<?>) args; }
+  }
+
+  private static boolean parseMode(String mode) {
+    String m = mode == null ? "" : mode.trim().toLowerCase().replace('_', '-').replace(' ', '-');
+    if (m.isEmpty() || "fail-fast".equals(m) || "failfast".equals(m)) return true;
+    if ("continue".equals(m) || "continue-on-error".equals(m)) return false;
+    throw new IllegalArgumentException("mode must be fail-fast or continue. Got: " + mode);
+  }
+
+  private static RemoteLibrary library(Map<String, RemoteLibrary> libs, String name) {
+    String path = name.trim().toLowerCase();
+    if (!path.startsWith("/")) path = "/" + path;
+    if (SELF.equals(path)) throw new IllegalArgumentException("Nested batches are not supported");
+    RemoteLibrary lib = libs.get(path);
+    if (lib == null) throw new IllegalArgumentException("No library mapped at: " + path);
+    return lib;
+  }
+
+  private static String describe(Throwable t) {
+    // javalib wraps keyword failures in a bare RuntimeException; report the real cause
+    while (t.getClass() == RuntimeException.class && t.getCause() != null) t = t.getCause();
+    String msg = t.getMessage();
+    if (t instanceof AssertionError) return msg == null ? "AssertionError" : msg;
+    return t.getClass().getSimpleName() + (msg == null ? "" : ": " + msg);
+  }
+
+  private static List<Step> coerceSteps(Object steps) {
+    Object in = steps;
+    if (in instanceof String) {
+      String s = ((String) in).trim();
+      if (s.isEmpty()) return List.of();
+      try {
+        in = MAPPER.readValue(s, new TypeReference<List<Object>>() {});
+      } catch (Exception e) {
+        throw new IllegalArgumentException("Steps must be a list or JSON array. Got: " + s, e);
+      }
+    }
+    if (in instanceof Object[]) in = List.of((Object[]) in);
+    if (!(in instanceof List)) throw new IllegalArgumentException("Steps must be a list. Got: " + in);
+
+    List<Step> out = new ArrayList<>();
+    for (Object item : (List<?>) in) out.add(coerceStep(item));
+    return out;
+  }
+
+  private static Step coerceStep(Object item) {
+    if (item instanceof Object[]) item = List.of((Object[]) item);
+    if (item instanceof Map) {
+      Map<?, ?> m = (Map<?, ?>) item;
+      Object lib = m.get("library"), kw = m.get("keyword");
+      if (lib == null || kw == null) throw new IllegalArgumentException("Step needs library and keyword: " + m);
+      return new Step(String.valueOf(lib), String.valueOf(kw), coerceArgs(m.get("args")));
+    }
+    if (item instanceof List) {
+      List<?> l = (List<?>) item;
+      if (l.size() < 2) throw new IllegalArgumentException("Step needs [library, keyword, args...]: " + l);
+      return new Step(String.valueOf(l.get(0)), String.valueOf(l.get(1)), coerceArgs(l.subList(2, l.size())));
+    }
+    throw new IllegalArgumentException("Step must be a list or dict. Got: " + item);
+  }
+
+  /**
+   * Lists and dicts reach the keyword as List and Map, as Robot's XML-RPC arrays and structs do.
+   * Other values travel as strings, so overloads and argument coercion apply as for a direct call.
+   */
+  private static List<Object> coerceArgs(Object args) {
+    if (args == null) return new ArrayList<>();
+    if (args instanceof Object[]) args = List.of((Object[]) args);
+    List<Object> out = new ArrayList<>();
+    if (args instanceof List) {
+      for (Object a : (List<?>) args) out.add(toArg(a));
+    } else {
+      out.add(toArg(args));
+    }
+    return out;
+  }
+
+  private static Object toArg(Object a) {
+    if (a == null) return "";
+    if (a instanceof Object[]) return Arrays.asList((Object[]) a);
+    if (a instanceof String || a instanceof Map || a instanceof List) return a;
+    return String.valueOf(a);
+  }
+}
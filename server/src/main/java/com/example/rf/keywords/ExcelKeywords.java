@@ -1,59 +1,425 @@
 package com.example.rf.keywords;
 
+import com.example.rf.keywords.core.ExcelStream;
+import com.example.rf.keywords.core.ExcelTable;
+import com.example.rf.keywords.core.Namespaced;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.robotframework.javalib.annotation.*;
 
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @RobotKeywords
 public class ExcelKeywords {
   public static final String ROBOT_LIBRARY_SCOPE = "GLOBAL";
-  private Workbook wb;
-  private Path filePath;
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final String DEFAULT_HANDLE = "default";
+  // named workbooks per caller namespace (pabot worker), see CallerContext
+  private final Namespaced<Workbooks> books = new Namespaced<>(Workbooks::new);
+
+  /** EDIT: full POI model; READ_STREAM: SAX reads, nothing in memory; WRITE_STREAM: SXSSF row window. */
+  private enum Mode { EDIT, READ_STREAM, WRITE_STREAM }
+
+  private static final class Book {
+    Workbook wb;
+    Path filePath;
+    Mode mode;
+    /** Sheets loaded with Load Table; dropped when the sheet is written. */
+    final Map<String, ExcelTable> tables = new ConcurrentHashMap<>();
+  }
+
+  /** Open workbooks by handle; cell keywords without a handle use the active one. */
+  private static final class Workbooks {
+    final Map<String, Book> byHandle = new ConcurrentHashMap<>();
+    volatile String active = DEFAULT_HANDLE;
+  }
 
   @RobotKeyword("Open an XLSX file; creates if missing.")
   @ArgumentNames({"path"})
   public void openExcel(String path) {
-    try {
-      filePath = Path.of(path);
-      if (Files.exists(filePath)) try (InputStream in = Files.newInputStream(filePath)) {
-        wb = WorkbookFactory.create(in);
-      } else {
-        wb = new XSSFWorkbook();
-      }
-    } catch (Exception e) { throw new RuntimeException(e); }
+    openWorkbook(DEFAULT_HANDLE, path, "edit", 100);
+  }
+
+  @RobotKeyword("Open a workbook under a handle and make it active. mode: edit (default, full model), "
+      + "read (streaming read-only) or write (new file, streaming with a windowRows row window).")
+  @ArgumentNames({"handle","path","mode=edit","windowRows=100"})
+  public void openWorkbook(String handle, String path, String mode, int windowRows) {
+    String m = mode == null ? "" : mode.trim().toLowerCase();
+    Path p = Path.of(path);
+    Book b = new Book();
+    b.filePath = p;
+    switch (m) {
+      case "":
+      case "edit":
+        b.mode = Mode.EDIT;
+        try {
+          if (Files.exists(p)) try (InputStream in = Files.newInputStream(p)) {
+            b.wb = WorkbookFactory.create(in);
+          } else {
+            b.wb = new XSSFWorkbook();
+          }
+        } catch (Exception e) { throw new RuntimeException(e); }
+        break;
+      case "read":
+      case "readonly":
+      case "read-only":
+        if (!Files.exists(p)) throw new IllegalArgumentException("No such workbook: " + path);
+        b.mode = Mode.READ_STREAM;
+        break;
+      case "write":
+        b.mode = Mode.WRITE_STREAM;
+        SXSSFWorkbook wb = new SXSSFWorkbook(windowRows);
+        wb.setCompressTempFiles(true);
+        b.wb = wb;
+        break;
+      default:
+        throw new IllegalArgumentException("mode must be edit, read or write. Got: " + mode);
+    }
+    Workbooks w = books.current();
+    closeQuietly(w.byHandle.put(handle, b));
+    w.active = handle;
+  }
+
+  @RobotKeyword("Open a workbook under a handle in the given mode; write mode keeps a 100-row window.")
+  @ArgumentNames({"handle","path","mode"})
+  public void openWorkbook(String handle, String path, String mode) {
+    openWorkbook(handle, path, mode, 100);
+  }
+
+  @RobotKeyword("Open a workbook under a handle for editing and make it active.")
+  @ArgumentNames({"handle","path"})
+  public void openWorkbook(String handle, String path) {
+    openWorkbook(handle, path, "edit", 100);
+  }
+
+  @RobotKeyword("Make an open workbook the target of the cell keywords (Read Cell, Write Rows, Save Excel, ...).")
+  @ArgumentNames({"handle"})
+  public void switchWorkbook(String handle) {
+    Workbooks w = books.current();
+    if (!w.byHandle.containsKey(handle)) throw new IllegalStateException("No workbook open as " + handle);
+    w.active = handle;
+  }
+
+  @RobotKeyword("Close one workbook handle without saving.")
+  @ArgumentNames({"handle"})
+  public void closeWorkbook(String handle) {
+    closeQuietly(books.current().byHandle.remove(handle));
+  }
+
+  @RobotKeyword("Open a large XLSX read-only: cells are streamed from disk on each read instead of loading "
+      + "the workbook. Prefer Read Range over many Read Cell calls.")
+  @ArgumentNames({"path"})
+  public void openExcelReadOnly(String path) {
+    openWorkbook(DEFAULT_HANDLE, path, "read", 0);
   }
 
-  @RobotKeyword("Read a cell (sheet,row,col) — 1-based indices.")
+  @RobotKeyword("Start a new XLSX for bulk writing; only the last windowRows rows per sheet stay in memory, "
+      + "older rows are flushed to a temp file. Save Excel creates or replaces the file.")
+  @ArgumentNames({"path","windowRows=100"})
+  public void openExcelForWriting(String path, int windowRows) {
+    openWorkbook(DEFAULT_HANDLE, path, "write", windowRows);
+  }
+
+  @RobotKeyword("Start a new XLSX for bulk writing with a 100-row window per sheet.")
+  @ArgumentNames({"path"})
+  public void openExcelForWriting(String path) {
+    openExcelForWriting(path, 100);
+  }
+
+  @RobotKeyword("Read a cell (sheet,row,col) — 1-based indices; returns the displayed text, as Read Range does.")
   @ArgumentNames({"sheet","row","col"})
   public String readCell(String sheet, int row, int col) {
-    Sheet sh = wb.getSheet(sheet);
+    Book b = open();
+    if (b.mode == Mode.READ_STREAM) {
+      String[] v = {""};
+      ExcelStream.read(b.filePath, sheet, (r, cells) -> {
+        if (r < row - 1) return true;
+        if (r == row - 1 && col - 1 < cells.size() && cells.get(col - 1) != null) v[0] = cells.get(col - 1);
+        return false;
+      });
+      return v[0];
+    }
+    Sheet sh = b.wb.getSheet(sheet);
     if (sh==null) throw new IllegalArgumentException("No sheet: "+sheet);
     Row r = sh.getRow(row-1); if (r==null) return "";
     Cell c = r.getCell(col-1); if (c==null) return "";
-    return c.getCellType()==CellType.NUMERIC ? String.valueOf(c.getNumericCellValue()) : c.toString();
+    return formatter().formatCellValue(c);
+  }
+
+  @RobotKeyword("Read a block of cells as a list of rows of displayed text, e.g. A2:D500, A2:D (to the last row) "
+      + "or empty for the whole sheet. Rows run from the range start to the last non-empty row.")
+  @ArgumentNames({"sheet","range="})
+  public List<List<String>> readRange(String sheet, String range) {
+    Book b = open();
+    Range rg = Range.parse(range);
+    TreeMap<Integer, List<String>> rows = new TreeMap<>();
+    if (b.mode == Mode.READ_STREAM) {
+      ExcelStream.read(b.filePath, sheet, (r, cells) -> {
+        if (r > rg.lastRow) return false;
+        if (r >= rg.firstRow) rows.put(r, rg.slice(cells));
+        return true;
+      });
+    } else {
+      Sheet sh = b.wb.getSheet(sheet);
+      if (sh==null) throw new IllegalArgumentException("No sheet: "+sheet);
+      DataFormatter fmt = formatter();
+      int last = Math.min(rg.lastRow, sh.getLastRowNum());
+      List<String> cells = new ArrayList<>();
+      for (int i = Math.max(rg.firstRow, sh.getFirstRowNum()); i <= last; i++) {
+        Row r = sh.getRow(i);
+        if (r == null) continue;
+        cells.clear();
+        for (int c = 0; c < r.getLastCellNum() && c <= rg.lastCol; c++) {
+          Cell cell = r.getCell(c);
+          cells.add(cell == null ? null : fmt.formatCellValue(cell));
+        }
+        rows.put(i, rg.slice(cells));
+      }
+    }
+    return rg.shape(rows);
+  }
+
+  @RobotKeyword("Read a whole sheet as a list of rows of displayed text.")
+  @ArgumentNames({"sheet"})
+  public List<List<String>> readRange(String sheet) {
+    return readRange(sheet, "");
+  }
+
+  @RobotKeyword("Load a sheet of a workbook handle once into an in-memory table (first row = header) with a hash "
+      + "index on keyColumn (default: first column), for Lookup Row By Key / Get Test Data Row. "
+      + "Returns rows, keyColumn and duplicates (rows whose key repeats an earlier one).")
+  @ArgumentNames({"handle","sheet","keyColumn="})
+  public Map<String,Object> loadTable(String handle, String sheet, String keyColumn) {
+    Book b = open(handle);
+    ExcelTable t = loadSheet(b, sheet, keyColumn);
+    b.tables.put(sheet, t);
+    Map<String,Object> out = new LinkedHashMap<>();
+    out.put("rows", t.rows());
+    out.put("keyColumn", t.defaultKey());
+    out.put("duplicates", t.duplicates(t.defaultKey()));
+    return out;
+  }
+
+  @RobotKeyword("Load Table indexed on the sheet's first column.")
+  @ArgumentNames({"handle","sheet"})
+  public Map<String,Object> loadTable(String handle, String sheet) {
+    return loadTable(handle, sheet, "");
+  }
+
+  @RobotKeyword("Row (header -> value) whose keyColumn equals key, from the sheet's table; loads it on first use.")
+  @ArgumentNames({"handle","sheet","keyColumn","key"})
+  public Map<String,String> lookupRowByKey(String handle, String sheet, String keyColumn, String key) {
+    Map<String,String> row = table(handle, sheet).lookup(keyColumn, key);
+    if (row == null) throw new AssertionError("No row with " + keyColumn + " = " + key + " in sheet " + sheet);
+    return row;
+  }
+
+  @RobotKeyword("Test data row by key on the table's key column (set by Load Table, else the first column).")
+  @ArgumentNames({"handle","sheet","key"})
+  public Map<String,String> getTestDataRow(String handle, String sheet, String key) {
+    ExcelTable t = table(handle, sheet);
+    return lookupRowByKey(handle, sheet, t.defaultKey(), key);
   }
 
   @RobotKeyword("Write a cell (sheet,row,col,value).")
   @ArgumentNames({"sheet","row","col","value"})
   public void writeCell(String sheet, int row, int col, String value) {
+    Book b = writable();
+    b.tables.remove(sheet);
+    Workbook wb = b.wb;
     Sheet sh = wb.getSheet(sheet); if (sh==null) sh = wb.createSheet(sheet);
     Row r = sh.getRow(row-1); if (r==null) r = sh.createRow(row-1);
     Cell c = r.getCell(col-1); if (c==null) c = r.createCell(col-1);
     c.setCellValue(value);
   }
 
+  @RobotKeyword("Write many rows (list of lists or JSON) starting at a 1-based row and column; startRow=0 appends "
+      + "after the last row. Numbers and booleans keep their type. Returns the number of rows written.")
+  @ArgumentNames({"sheet","rows","startRow=0","startCol=1"})
+  public int writeRows(String sheet, Object rows, int startRow, int startCol) {
+    Book b = writable();
+    b.tables.remove(sheet);
+    Sheet sh = b.wb.getSheet(sheet); if (sh==null) sh = b.wb.createSheet(sheet);
+    int r0 = startRow > 0 ? startRow - 1 : (sh.getPhysicalNumberOfRows() == 0 ? 0 : sh.getLastRowNum() + 1);
+    List<?> data = coerceRows(rows);
+    for (int i = 0; i < data.size(); i++) {
+      Row r = sh.getRow(r0 + i);
+      if (r == null) r = sh.createRow(r0 + i);
+      Object line = data.get(i);
+      List<?> values = line instanceof List ? (List<?>) line : List.of(line == null ? "" : line);
+      for (int j = 0; j < values.size(); j++) {
+        Cell c = r.getCell(startCol - 1 + j);
+        if (c == null) c = r.createCell(startCol - 1 + j);
+        Object v = values.get(j);
+        if (v instanceof Number) c.setCellValue(((Number) v).doubleValue());
+        else if (v instanceof Boolean) c.setCellValue((Boolean) v);
+        else c.setCellValue(v == null ? "" : String.valueOf(v));
+      }
+    }
+    return data.size();
+  }
+
+  @RobotKeyword("Write Rows from column 1; startRow=0 appends after the last row.")
+  @ArgumentNames({"sheet","rows","startRow"})
+  public int writeRows(String sheet, Object rows, int startRow) {
+    return writeRows(sheet, rows, startRow, 1);
+  }
+
+  @RobotKeyword("Append rows after the last row of a sheet, from column 1.")
+  @ArgumentNames({"sheet","rows"})
+  public int writeRows(String sheet, Object rows) {
+    return writeRows(sheet, rows, 0, 1);
+  }
+
   @RobotKeyword("Save workbook (overwrites original file).")
   public void saveExcel() {
-    try (OutputStream out = Files.newOutputStream(filePath)) { wb.write(out); }
-    catch (IOException e) { throw new RuntimeException(e); }
+    Book b = writable();
+    try {
+      if (b.filePath.getParent() != null) Files.createDirectories(b.filePath.getParent());
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(b.filePath))) { b.wb.write(out); }
+    } catch (IOException e) { throw new RuntimeException(e); }
   }
 
-  @RobotKeyword("Close workbook.")
+  @RobotKeyword("Close every workbook of the caller.")
   public void closeExcel() {
-    try { wb.close(); } catch (IOException ignored) {}
+    Workbooks w = books.remove();
+    if (w != null) w.byHandle.values().forEach(ExcelKeywords::closeQuietly);
+  }
+
+  private Book open() {
+    Workbooks w = books.current();
+    Book b = w.byHandle.get(w.active);
+    if (b == null) throw new IllegalStateException("No workbook open; call Open Excel first");
+    return b;
+  }
+
+  private Book open(String handle) {
+    Book b = books.current().byHandle.get(handle);
+    if (b == null) throw new IllegalStateException("No workbook open as " + handle + "; call Open Workbook first");
+    return b;
+  }
+
+  private ExcelTable table(String handle, String sheet) {
+    Book b = open(handle);
+    return b.tables.computeIfAbsent(sheet, s -> loadSheet(b, s, ""));
+  }
+
+  /** One pass over the sheet: streamed from disk in read mode, from the model otherwise. */
+  private static ExcelTable loadSheet(Book b, String sheet, String keyColumn) {
+    ExcelTable.Builder tb = new ExcelTable.Builder();
+    if (b.mode == Mode.READ_STREAM) {
+      ExcelStream.read(b.filePath, sheet, (r, cells) -> { tb.row(cells); return true; });
+    } else {
+      Sheet sh = b.wb.getSheet(sheet);
+      if (sh==null) throw new IllegalArgumentException("No sheet: "+sheet);
+      DataFormatter fmt = formatter();
+      List<String> cells = new ArrayList<>();
+      for (Row r : sh) {
+        cells.clear();
+        for (int c = 0; c < r.getLastCellNum(); c++) {
+          Cell cell = r.getCell(c);
+          cells.add(cell == null ? null : fmt.formatCellValue(cell));
+        }
+        if (cells.stream().anyMatch(v -> v != null && !v.isEmpty())) tb.row(cells);
+      }
+    }
+    return tb.build(keyColumn);
+  }
+
+  /**
+   * Displayed text with cached formula results: the rule the streaming reader applies, so edit and
+   * read-only workbooks return the same strings (5, not 5.0). Not thread-safe; one per call.
+   */
+  private static DataFormatter formatter() {
+    DataFormatter fmt = new DataFormatter();
+    fmt.setUseCachedValuesForFormulaCells(true);
+    return fmt;
+  }
+
+  private Book writable() {
+    Book b = open();
+    if (b.mode == Mode.READ_STREAM) throw new IllegalStateException("Workbook " + b.filePath + " is open read-only");
+    return b;
+  }
+
+  private static void closeQuietly(Book b) {
+    if (b == null || b.wb == null) return;
+    // SXSSFWorkbook.close() also deletes its temp files
+    try { b.wb.close(); } catch (IOException ignored) {}
+    b.wb = null;
+  }
+
+  private static List<?> coerceRows(Object rows) {
+    if (rows instanceof Object[]) return List.of((Object[]) rows);
+    if (rows instanceof List) return (List<?>) rows;
+    String s = String.valueOf(rows).trim();
+    if (s.isEmpty()) return List.of();
+    try {
+      return MAPPER.readValue(s, new TypeReference<List<Object>>() {});
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Rows must be a list of lists or a JSON array. Got: " + s, e);
+    }
+  }
+
+  /** 0-based, inclusive bounds of an A1-style range; open ends are Integer.MAX_VALUE. */
+  private static final class Range {
+    private static final Pattern A1 = Pattern.compile("([A-Za-z]*)(\\d*)");
+    final int firstRow, lastRow, firstCol, lastCol;
+
+    private Range(int firstRow, int lastRow, int firstCol, int lastCol) {
+      this.firstRow = firstRow; this.lastRow = lastRow; this.firstCol = firstCol; this.lastCol = lastCol;
+    }
+
+    static Range parse(String range) {
+      String s = range == null ? "" : range.trim().replace("$", "");
+      if (s.isEmpty()) return new Range(0, Integer.MAX_VALUE, 0, Integer.MAX_VALUE);
+      String[] ends = s.split(":", -1);
+      if (ends.length > 2) throw new IllegalArgumentException("Bad range: " + range);
+      int[] from = corner(ends[0], 0, range), to = corner(ends.length == 2 ? ends[1] : ends[0], Integer.MAX_VALUE, range);
+      return new Range(from[0], to[0], from[1], to[1]);
+    }
+
+    /** {row, col}, with missing parts defaulting to {@code open}. */
+    private static int[] corner(String ref, int open, String range) {
+      Matcher m = A1.matcher(ref.trim());
+      if (!m.matches()) throw new IllegalArgumentException("Bad range: " + range);
+      int col = m.group(1).isEmpty() ? open : CellReference.convertColStringToIndex(m.group(1).toUpperCase());
+      int row = m.group(2).isEmpty() ? open : Integer.parseInt(m.group(2)) - 1;
+      return new int[] { row, col };
+    }
+
+    List<String> slice(List<String> cells) {
+      List<String> out = new ArrayList<>();
+      for (int c = firstCol; c < cells.size() && c <= lastCol; c++) out.add(cells.get(c) == null ? "" : cells.get(c));
+      return out;
+    }
+
+    /** Rows from the range start to the last one seen, padded to a common width. */
+    List<List<String>> shape(TreeMap<Integer, List<String>> rows) {
+      List<List<String>> out = new ArrayList<>();
+      if (rows.isEmpty()) return out;
+      int width = lastCol == Integer.MAX_VALUE ? 0 : lastCol - firstCol + 1;
+      for (List<String> r : rows.values()) width = Math.max(width, r.size());
+      for (int i = firstRow; i <= rows.lastKey(); i++) {
+        List<String> r = rows.getOrDefault(i, new ArrayList<>());
+        while (r.size() < width) r.add("");
+        out.add(r);
+      }
+      return out;
+    }
   }
 }
@@ -1,5 +1,10 @@
 package com.example.rf.keywords;
 
+import com.example.rf.keywords.core.AsyncFixLog;
+import com.example.rf.keywords.core.FixInbox;
+import com.example.rf.keywords.core.FixSessions;
+import com.example.rf.keywords.core.KeywordMetrics;
+import com.example.rf.keywords.core.OrderBlast;
 import org.robotframework.javalib.annotation.ArgumentNames;
 import org.robotframework.javalib.annotation.RobotKeyword;
 import org.robotframework.javalib.annotation.RobotKeywords;
@@ -8,25 +13,43 @@ import quickfix.field.*;
 import quickfix.fix44.NewOrderSingle;
 
 import java.io.FileInputStream;
-import java.io.InputStream;
-import java.io.FileNotFoundException;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 @RobotKeywords
 public class FixKeywords implements Application {
     public static final String ROBOT_LIBRARY_SCOPE = "SUITE";
 
     private Initiator initiator;
+    private volatile AsyncFixLog asyncLog;
     private SessionID sessionID;
 
-    private final BlockingQueue<Message> inbox = new ArrayBlockingQueue<>(100);
-    private final CountDownLatch logonLatch = new CountDownLatch(1);
+    private final FixInbox inbox = new FixInbox();
+    private volatile CountDownLatch logonLatch = new CountDownLatch(1);
     private final AtomicBoolean loggedOn = new AtomicBoolean(false);
 
+    /** ClOrdIDs are "CL" + server start in base 36 + "-" + sequence: unique per run, increasing within it. */
+    private static final String CLORDID_PREFIX = "CL" + Long.toString(System.currentTimeMillis(), 36) + "-";
+    private static final AtomicLong CLORDID_SEQ = new AtomicLong(1);
+    private volatile OrderBlast blast;
+
+    public FixKeywords() {
+        KeywordMetrics.gauge("rf_fix_inbox_depth", "Application messages waiting in the FIX inbox.", "",
+            () -> Map.of("", inbox.depth()));
+        KeywordMetrics.gauge("rf_fix_inbox", "FIX inbox counters (received, delivered, overflowed, timeouts, waiters).", "stat",
+            inbox::stats);
+        KeywordMetrics.gauge("rf_fix_log", "Async FIX log lines queued, written and dropped.", "stat",
+            () -> asyncLog == null ? Map.of() : asyncLog.stats());
+    }
+
     // ---- Application callbacks ----
     @Override public void onCreate(SessionID sid) { this.sessionID = sid; }
     @Override public void onLogon(SessionID sid)  { loggedOn.set(true);  logonLatch.countDown(); }
@@ -34,7 +57,27 @@ public class FixKeywords implements Application {
     @Override public void toAdmin(Message msg, SessionID sid) { /* no-op */ }
     @Override public void toApp(Message msg, SessionID sid) throws DoNotSend { /* no-op */ }
     @Override public void fromAdmin(Message msg, SessionID sid) { /* no-op */ }
-    @Override public void fromApp(Message msg, SessionID sid) { inbox.offer(msg); }
+    @Override public void fromApp(Message msg, SessionID sid) {
+        long received = System.nanoTime();
+        OrderBlast b = blast;
+        if (b != null && isExecutionReport(msg)) {
+            try {
+                if (b.onExecutionReport(msg.getString(ClOrdID.FIELD), msg.getChar(ExecType.FIELD),
+                        msg.getChar(OrdStatus.FIELD), received)) return;
+            } catch (FieldNotFound e) {
+                // not one of ours; fall through to the inbox
+            }
+        }
+        inbox.add(msg);
+    }
+
+    private static boolean isExecutionReport(Message msg) {
+        try {
+            return MsgType.EXECUTION_REPORT.equals(msg.getHeader().getString(MsgType.FIELD));
+        } catch (FieldNotFound e) {
+            return false;
+        }
+    }
 
     /**
      * Start a FIX initiator using the supplied configuration file. If the filename begins
@@ -42,36 +85,49 @@ public class FixKeywords implements Application {
      * class loader. Otherwise a normal {@link FileInputStream} is used. This supports packaging
      * configuration files inside the resources folder so that tests are portable.
      *
+     * <p>The message store and log can be chosen per call or in the cfg {@code [DEFAULT]} section
+     * ({@code RfStore}, {@code RfLog}, {@code RfLogCategories}, {@code RfLogFile}); the defaults
+     * keep the file store and the synchronous screen log.
+     *
      * @param cfgFile The path to the FIX initiator configuration file or {@code classpath:...}
+     * @param store file (default), cachedfile, mmap, memory or noop
+     * @param log screen (default), async, file or none
+     * @param logCategories comma-separated subset of incoming,outgoing,events (default all)
      * @throws Exception if the configuration cannot be found or the initiator fails to start
      */
-    @RobotKeyword("Start FIX initiator with cfg file. Supports 'classpath:' prefix for files bundled in resources.")
-    @ArgumentNames({"cfgFile"})
-    public void startInitiator(String cfgFile) throws Exception {
-        SessionSettings settings;
-        InputStream cfgStream = null;
-        if (cfgFile != null && cfgFile.startsWith("classpath:")) {
-            String resource = cfgFile.substring("classpath:".length());
-            // remove any leading slashes so ResourceLoader can find it
-            while (resource.startsWith("/") || resource.startsWith("\\")) {
-                resource = resource.substring(1);
-            }
-            cfgStream = FixKeywords.class.getClassLoader().getResourceAsStream(resource);
-            if (cfgStream == null) {
-                throw new FileNotFoundException("FIX config resource not found on classpath: " + resource);
-            }
-            settings = new SessionSettings(cfgStream);
-        } else {
-            settings = new SessionSettings(new FileInputStream(cfgFile));
-        }
-        MessageStoreFactory storeFactory = new FileStoreFactory(settings);
-        LogFactory logFactory = new ScreenLogFactory(true, true, true);
+    @RobotKeyword("Start FIX initiator with cfg file. Supports 'classpath:' prefix for files bundled in resources. "
+        + "store=file|cachedfile|mmap|memory|noop, log=screen|async|file|none, logCategories=incoming,outgoing,events "
+        + "(or RfStore / RfLog / RfLogCategories / RfLogFile in the cfg).")
+    @ArgumentNames({"cfgFile","store=","log=","logCategories="})
+    public void startInitiator(String cfgFile, String store, String log, String logCategories) throws Exception {
+        SessionSettings settings = FixSessions.load(cfgFile);
+        MessageStoreFactory storeFactory = FixSessions.store(FixSessions.option(settings, store, "RfStore", "file"), settings);
+        if (asyncLog != null) asyncLog.close();
+        LogFactory logFactory = FixSessions.log(FixSessions.option(settings, log, "RfLog", "screen"),
+            FixSessions.option(settings, logCategories, "RfLogCategories", "incoming,outgoing,events"), settings);
+        asyncLog = logFactory instanceof AsyncFixLog ? (AsyncFixLog) logFactory : null;
         MessageFactory msgFactory = new DefaultMessageFactory();
+        logonLatch = new CountDownLatch(1); // a restarted initiator must log on again
         initiator = new SocketInitiator(this, storeFactory, settings, logFactory, msgFactory);
         initiator.start();
-        if (cfgStream != null) {
-            cfgStream.close();
-        }
+    }
+
+    @RobotKeyword("Start FIX initiator with cfg file. Supports 'classpath:' prefix for files bundled in resources.")
+    @ArgumentNames({"cfgFile"})
+    public void startInitiator(String cfgFile) throws Exception {
+        startInitiator(cfgFile, "", "", "");
+    }
+
+    @RobotKeyword("Start Initiator with a message store, taking the log from the cfg.")
+    @ArgumentNames({"cfgFile","store"})
+    public void startInitiator(String cfgFile, String store) throws Exception {
+        startInitiator(cfgFile, store, "", "");
+    }
+
+    @RobotKeyword("Start Initiator with a message store and log, logging every category unless the cfg says otherwise.")
+    @ArgumentNames({"cfgFile","store","log"})
+    public void startInitiator(String cfgFile, String store, String log) throws Exception {
+        startInitiator(cfgFile, store, log, "");
     }
 
     @RobotKeyword("Wait until FIX session is logged on (timeout seconds).")
@@ -83,31 +139,220 @@ public class FixKeywords implements Application {
         }
     }
 
-    @RobotKeyword("Send NewOrderSingle (symbol, qty, side(BUY/SELL), price).")
+    @RobotKeyword("Send NewOrderSingle (symbol, qty, side(BUY/SELL), price). Returns the ClOrdID.")
     @ArgumentNames({"symbol","quantity","side","price"})
-    public void sendNOS(String symbol, double quantity, String side, double price) throws SessionNotFound {
+    public String sendNOS(String symbol, double quantity, String side, double price) throws SessionNotFound {
+        String clOrdId = CLORDID_PREFIX + CLORDID_SEQ.getAndIncrement();
+        Session.sendToTarget(newOrder(clOrdId, symbol, quantity, side, price), sessionID);
+        return clOrdId;
+    }
+
+    /**
+     * Send {@code count} limit orders back to back, or at {@code ratePerSec}, and time each one
+     * from hand-off to the session until its first ExecutionReport (ack) and the one that fills it.
+     * Reports for these orders are counted here and do not reach the inbox.
+     *
+     * @param until ack (default), fill (filled or rejected) or none (return once sent)
+     */
+    @RobotKeyword("Send count NewOrderSingles with unique increasing ClOrdIDs at ratePerSec (0 = as fast as possible), "
+        + "wait for their ExecutionReports (until=ack|fill|none), and return throughput and ack/fill latency percentiles in ms.")
+    @ArgumentNames({"symbol","quantity","side","price","count","ratePerSec=0","until=ack","timeoutSec=30"})
+    public Map<String, Object> blastOrders(String symbol, double quantity, String side, double price, int count,
+                                           double ratePerSec, String until, int timeoutSec) {
+        Session session = Session.lookupSession(sessionID);
+        if (session == null || !session.isLoggedOn()) throw new IllegalStateException("FIX session is not logged on");
+        OrderBlast.Until wait = OrderBlast.Until.of(until);
+        OrderBlast b = new OrderBlast(CLORDID_PREFIX, CLORDID_SEQ.getAndAdd(count), count);
+        blast = b;
+        boolean complete;
+        try {
+            b.run(ratePerSec, (i, clOrdId) -> session.send(newOrder(clOrdId, symbol, quantity, side, price)));
+            complete = b.await(wait, TimeUnit.SECONDS.toNanos(timeoutSec));
+        } finally {
+            // reports arriving after the run go to the inbox like any other message
+            if (blast == b) blast = null;
+        }
+        Map<String, Object> result = b.toMap();
+        result.put("complete", complete);
+        return result;
+    }
+
+    @RobotKeyword("Blast Orders waiting until=ack|fill|none, with a 30s timeout.")
+    @ArgumentNames({"symbol","quantity","side","price","count","ratePerSec","until"})
+    public Map<String, Object> blastOrders(String symbol, double quantity, String side, double price, int count,
+                                           double ratePerSec, String until) {
+        return blastOrders(symbol, quantity, side, price, count, ratePerSec, until, 30);
+    }
+
+    @RobotKeyword("Blast Orders at ratePerSec, waiting for acks with a 30s timeout.")
+    @ArgumentNames({"symbol","quantity","side","price","count","ratePerSec"})
+    public Map<String, Object> blastOrders(String symbol, double quantity, String side, double price, int count,
+                                           double ratePerSec) {
+        return blastOrders(symbol, quantity, side, price, count, ratePerSec, "ack", 30);
+    }
+
+    @RobotKeyword("Blast Orders as fast as possible, waiting for acks with a 30s timeout.")
+    @ArgumentNames({"symbol","quantity","side","price","count"})
+    public Map<String, Object> blastOrders(String symbol, double quantity, String side, double price, int count) {
+        return blastOrders(symbol, quantity, side, price, count, 0, "ack", 30);
+    }
+
+    private static NewOrderSingle newOrder(String clOrdId, String symbol, double quantity, String side, double price) {
         NewOrderSingle nos = new NewOrderSingle(
-            new ClOrdID("CL" + System.currentTimeMillis()),
+            new ClOrdID(clOrdId),
             new Side("SELL".equalsIgnoreCase(side) ? Side.SELL : Side.BUY),
             new TransactTime(),
             new OrdType(OrdType.LIMIT)
         );
+        // HandlInst (21) is required on a FIX 4.2 NewOrderSingle; counterparties reject orders without it
+        nos.set(new HandlInst(HandlInst.AUTOMATED_EXECUTION_ORDER_PRIVATE_NO_BROKER_INTERVENTION));
         nos.set(new Symbol(symbol));
         nos.set(new OrderQty(quantity));
         nos.set(new Price(price));
-        Session.sendToTarget(nos, sessionID);
+        return nos;
     }
 
-    @RobotKeyword("Wait for ExecutionReport; returns message string.")
+    @RobotKeyword("Wait for the next ExecutionReport; returns message string.")
     @ArgumentNames({"timeoutSec=10"})
     public String awaitExecutionReport(int timeoutSec) throws InterruptedException {
-        Message m = inbox.poll(timeoutSec, TimeUnit.SECONDS);
-        if (m == null) throw new AssertionError("No message within timeout");
+        Message m = inbox.await(MsgType.EXECUTION_REPORT, null, null, TimeUnit.SECONDS.toNanos(timeoutSec));
+        if (m == null) throw new AssertionError("No ExecutionReport within " + timeoutSec + "s");
         return m.toString();
     }
 
+    /**
+     * Wait for the ExecutionReport of one order, optionally of one ExecType (code such as
+     * {@code 2} or QuickFIX/J name such as {@code FILL}, {@code TRADE}, {@code ExecType=NEW}).
+     * Returns the message as a field-name → value map; repeating groups are lists of maps.
+     */
+    @RobotKeyword("Wait for the ExecutionReport with this ClOrdID (and ExecType, e.g. FILL or 2); returns its fields as a dict.")
+    @ArgumentNames({"clOrdId","execType=","timeoutSec=10"})
+    public Map<String, Object> awaitExecutionReportFor(String clOrdId, String execType, int timeoutSec) throws InterruptedException {
+        String code = code(ExecType.class, execType);
+        Message m = inbox.await(MsgType.EXECUTION_REPORT, clOrdId, code, TimeUnit.SECONDS.toNanos(timeoutSec));
+        if (m == null) {
+            throw new AssertionError("No ExecutionReport for ClOrdID " + clOrdId
+                + (code.isEmpty() ? "" : " with ExecType " + code) + " within " + timeoutSec + "s");
+        }
+        return fields(m);
+    }
+
+    @RobotKeyword("Await Execution Report For a ClOrdID and ExecType, with a 10s timeout.")
+    @ArgumentNames({"clOrdId","execType"})
+    public Map<String, Object> awaitExecutionReportFor(String clOrdId, String execType) throws InterruptedException {
+        return awaitExecutionReportFor(clOrdId, execType, 10);
+    }
+
+    @RobotKeyword("Await the first ExecutionReport of any ExecType for a ClOrdID, with a 10s timeout.")
+    @ArgumentNames({"clOrdId"})
+    public Map<String, Object> awaitExecutionReportFor(String clOrdId) throws InterruptedException {
+        return awaitExecutionReportFor(clOrdId, "", 10);
+    }
+
+    @RobotKeyword("Wait for an application message by MsgType (code or name, empty = any), ClOrdID and ExecType; returns its fields as a dict.")
+    @ArgumentNames({"msgType=","clOrdId=","execType=","timeoutSec=10"})
+    public Map<String, Object> awaitFixMessage(String msgType, String clOrdId, String execType, int timeoutSec) throws InterruptedException {
+        String type = code(MsgType.class, msgType);
+        String exec = code(ExecType.class, execType);
+        Message m = inbox.await(type, clOrdId, exec, TimeUnit.SECONDS.toNanos(timeoutSec));
+        if (m == null) {
+            throw new AssertionError("No message with MsgType=" + type + " ClOrdID=" + clOrdId
+                + " ExecType=" + exec + " within " + timeoutSec + "s");
+        }
+        return fields(m);
+    }
+
+    @RobotKeyword("Await FIX Message by MsgType, ClOrdID and ExecType, with a 10s timeout.")
+    @ArgumentNames({"msgType","clOrdId","execType"})
+    public Map<String, Object> awaitFixMessage(String msgType, String clOrdId, String execType) throws InterruptedException {
+        return awaitFixMessage(msgType, clOrdId, execType, 10);
+    }
+
+    @RobotKeyword("Await FIX Message by MsgType and ClOrdID, with a 10s timeout.")
+    @ArgumentNames({"msgType","clOrdId"})
+    public Map<String, Object> awaitFixMessage(String msgType, String clOrdId) throws InterruptedException {
+        return awaitFixMessage(msgType, clOrdId, "", 10);
+    }
+
+    @RobotKeyword("Await FIX Message by MsgType, with a 10s timeout.")
+    @ArgumentNames({"msgType"})
+    public Map<String, Object> awaitFixMessage(String msgType) throws InterruptedException {
+        return awaitFixMessage(msgType, "", "", 10);
+    }
+
+    @RobotKeyword("Await the next FIX application message of any type, with a 10s timeout.")
+    public Map<String, Object> awaitFixMessage() throws InterruptedException {
+        return awaitFixMessage("", "", "", 10);
+    }
+
+    @RobotKeyword("FIX inbox counters: depth, capacity, received, delivered, overflowed (dropped oldest), timeouts, waiters.")
+    public Map<String, Long> fixInboxStats() {
+        return inbox.stats();
+    }
+
+    @RobotKeyword("Discard all messages waiting in the FIX inbox; returns how many were discarded.")
+    public int clearFixInbox() {
+        return inbox.clear();
+    }
+
+    /** Resolves a value given as code or as the QuickFIX/J constant name (ExecutionReport, FILL, ExecType=FILL). */
+    private static String code(Class<?> field, String value) {
+        if (value == null || value.isBlank() || "*".equals(value.trim())) return "";
+        String v = value.trim();
+        int eq = v.indexOf('=');
+        if (eq >= 0) v = v.substring(eq + 1).trim();
+        String wanted = v.replace("_", "").toUpperCase(Locale.ROOT);
+        for (java.lang.reflect.Field f : field.getFields()) {
+            if (f.getType() == int.class || !java.lang.reflect.Modifier.isStatic(f.getModifiers())) continue;
+            if (!f.getName().replace("_", "").equals(wanted)) continue;
+            try {
+                return String.valueOf(f.get(null));
+            } catch (IllegalAccessException e) {
+                break;
+            }
+        }
+        return v;
+    }
+
+    /** Header, body and trailer fields by data-dictionary name (tag number when unknown). */
+    private Map<String, Object> fields(Message m) {
+        DataDictionary dd = dictionary();
+        Map<String, Object> out = new LinkedHashMap<>();
+        putFields(out, m.getHeader(), dd);
+        putFields(out, m, dd);
+        putFields(out, m.getTrailer(), dd);
+        return out;
+    }
+
+    private static void putFields(Map<String, Object> out, FieldMap fm, DataDictionary dd) {
+        for (Iterator<Field<?>> it = fm.iterator(); it.hasNext(); ) {
+            Field<?> f = it.next();
+            String name = dd == null ? null : dd.getFieldName(f.getTag());
+            if (name == null) name = String.valueOf(f.getTag());
+            List<Group> groups = fm.getGroups(f.getTag());
+            if (groups.isEmpty()) {
+                out.put(name, String.valueOf(f.getObject()));
+            } else {
+                List<Map<String, Object>> rows = new ArrayList<>(groups.size());
+                for (Group g : groups) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    putFields(row, g, dd);
+                    rows.add(row);
+                }
+                out.put(name, rows);
+            }
+        }
+    }
+
+    private DataDictionary dictionary() {
+        Session session = sessionID == null ? null : Session.lookupSession(sessionID);
+        return session == null ? null : session.getDataDictionary();
+    }
+
     @RobotKeyword("Stop FIX initiator.")
     public void stopInitiator() {
+        blast = null;
         if (initiator != null) initiator.stop();
+        if (asyncLog != null) asyncLog.close();
     }
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.example.rf.keywords;
+
+import com.example.rf.keywords.core.FixSessions;
+import com.example.rf.keywords.core.FixSimulator;
+import org.robotframework.javalib.annotation.ArgumentNames;
+import org.robotframework.javalib.annotation.RobotKeyword;
+import org.robotframework.javalib.annotation.RobotKeywords;
+import quickfix.SessionSettings;
+
+import java.util.Map;
+
+/**
+ * In-process FIX acceptor so FIX suites and order-rate benchmarks run without an external
+ * counterparty. One simulator per server; starting it again replaces the running one.
+ */
+@RobotKeywords
+public class FixSimKeywords {
+  public static final String ROBOT_LIBRARY_SCOPE = "GLOBAL";
+
+  private FixSimulator sim;
+
+  @RobotKeyword("Start the FIX acceptor simulator from a cfg (default classpath:acceptor.cfg). "
+      + "store and log take the same values as Start Initiator; defaults memory / none.")
+  @ArgumentNames({"cfgFile=classpath:acceptor.cfg", "store=", "log=", "logCategories="})
+  public synchronized void startFixSimulator(String cfgFile, String store, String log, String logCategories) throws Exception {
+    stopFixSimulator();
+    SessionSettings settings = FixSessions.load(cfgFile);
+    FixSimulator s = new FixSimulator(settings,
+        FixSessions.store(FixSessions.option(settings, store, "RfStore", "memory"), settings),
+        FixSessions.log(FixSessions.option(settings, log, "RfLog", "none"),
+            FixSessions.option(settings, logCategories, "RfLogCategories", "incoming,outgoing,events"), settings));
+    s.start();
+    sim = s;
+  }
+
+  @RobotKeyword("Start FIX Simulator with a message store and log, taking the log categories from the cfg.")
+  @ArgumentNames({"cfgFile", "store", "log"})
+  public void startFixSimulator(String cfgFile, String store, String log) throws Exception {
+    startFixSimulator(cfgFile, store, log, "");
+  }
+
+  @RobotKeyword("Start FIX Simulator with a message store, taking the log from the cfg (default none).")
+  @ArgumentNames({"cfgFile", "store"})
+  public void startFixSimulator(String cfgFile, String store) throws Exception {
+    startFixSimulator(cfgFile, store, "", "");
+  }
+
+  @RobotKeyword("Start FIX Simulator from a cfg with the cfg's store and log (default memory / none).")
+  @ArgumentNames({"cfgFile"})
+  public void startFixSimulator(String cfgFile) throws Exception {
+    startFixSimulator(cfgFile, "", "", "");
+  }
+
+  @RobotKeyword("Start FIX Simulator from classpath:acceptor.cfg.")
+  public void startFixSimulator() throws Exception {
+    startFixSimulator("classpath:acceptor.cfg", "", "", "");
+  }
+
+  @RobotKeyword("How the simulator answers NewOrderSingle. steps: comma list of ack, partial, fill, reject, none "
+      + "(partial/fill split the quantity equally); latencyMs before each step; every Nth order from now on rejected when rejectEvery > 0; "
+      + "mode=match crosses orders in a per-symbol price-time book instead of following steps.")
+  @ArgumentNames({"steps=ack,fill", "latencyMs=0", "rejectEvery=0", "mode=auto"})
+  public Map<String, Object> setFixSimulatorBehaviour(String steps, long latencyMs, int rejectEvery, String mode) {
+    FixSimulator.Behaviour b = new FixSimulator.Behaviour(mode, steps, latencyMs, rejectEvery);
+    running().behave(b);
+    return b.toMap();
+  }
+
+  @RobotKeyword("Set FIX Simulator Behaviour in auto mode, rejecting every Nth order when rejectEvery > 0.")
+  @ArgumentNames({"steps", "latencyMs", "rejectEvery"})
+  public Map<String, Object> setFixSimulatorBehaviour(String steps, long latencyMs, int rejectEvery) {
+    return setFixSimulatorBehaviour(steps, latencyMs, rejectEvery, "auto");
+  }
+
+  @RobotKeyword("Set FIX Simulator Behaviour in auto mode with latencyMs before each step.")
+  @ArgumentNames({"steps", "latencyMs"})
+  public Map<String, Object> setFixSimulatorBehaviour(String steps, long latencyMs) {
+    return setFixSimulatorBehaviour(steps, latencyMs, 0, "auto");
+  }
+
+  @RobotKeyword("Set FIX Simulator Behaviour in auto mode with no added latency.")
+  @ArgumentNames({"steps"})
+  public Map<String, Object> setFixSimulatorBehaviour(String steps) {
+    return setFixSimulatorBehaviour(steps, 0, 0, "auto");
+  }
+
+  @RobotKeyword("Simulator counters: orders, reports, rejects, trades, cancels, resting, loggedOn.")
+  public Map<String, Object> fixSimulatorStats() {
+    return running().stats();
+  }
+
+  @RobotKeyword("Resting orders for a symbol in match mode: {bids: [...], asks: [...]}, best price first.")
+  @ArgumentNames({"symbol"})
+  public Map<String, Object> fixSimulatorBook(String symbol) {
+    return running().book(symbol);
+  }
+
+  @RobotKeyword("Drop all resting orders in the simulator's books without reporting them.")
+  public void clearFixSimulatorBooks() {
+    running().clearBooks();
+  }
+
+  @RobotKeyword("Stop the FIX acceptor simulator (no-op if it is not running).")
+  public synchronized void stopFixSimulator() {
+    if (sim != null) sim.close();
+    sim = null;
+  }
+
+  private synchronized FixSimulator running() {
+    if (sim == null) throw new IllegalStateException("FIX simulator is not running; call Start FIX Simulator first");
+    return sim;
+  }
+}
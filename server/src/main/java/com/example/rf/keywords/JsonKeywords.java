@@ -1,12 +1,18 @@
 package com.example.rf.keywords;
 
 import com.example.rf.keywords.core.FileUtils;
+import com.example.rf.keywords.core.JsonDiff;
+import com.example.rf.keywords.core.JsonDocs;
+import com.example.rf.keywords.core.JsonSchemas;
+import com.example.rf.keywords.core.JsonStream;
+import com.example.rf.keywords.core.TemplateUtils;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.jayway.jsonpath.JsonPath;
 import org.robotframework.javalib.annotation.*;
 
+import java.nio.file.Path;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RobotKeywords
@@ -32,7 +38,20 @@ public class JsonKeywords {
   @RobotKeyword("Get value by JsonPath, returns string.")
   @ArgumentNames({"json","jsonPath"})
   public String jsonPath(String json, String jsonPath) {
-    return String.valueOf(JsonPath.parse(json).read(jsonPath));
+    Object v = JsonDocs.parse(json).read(JsonDocs.compiled(jsonPath));
+    return String.valueOf(v);
+  }
+
+  @RobotKeyword("Get many JsonPaths (list, or comma-separated outside brackets) from one parse; returns path -> string.")
+  @ArgumentNames({"json","jsonPaths"})
+  public Map<String,String> jsonPaths(String json, Object jsonPaths) {
+    var doc = JsonDocs.parse(json);
+    Map<String,String> out = new LinkedHashMap<>();
+    for (String p : JsonDocs.pathList(jsonPaths)) {
+      Object v = doc.read(JsonDocs.compiled(p));
+      out.put(p, String.valueOf(v));
+    }
+    return out;
   }
 
   @RobotKeyword("Shallow-merge two JSON objects; right wins.")
@@ -44,4 +63,159 @@ public class JsonKeywords {
     m.putAll(b);
     return MAPPER.writeValueAsString(m);
   }
+
+  @RobotKeyword("Validate JSON against a JSON Schema (inline JSON, classpath:name or file path); returns the "
+      + "violations, empty when valid. Compiled schemas are cached, so repeated checks only walk the document.")
+  @ArgumentNames({"json","schema"})
+  public List<String> validateJson(String json, String schema) {
+    return JsonSchemas.validate(JsonSchemas.parse(json), schema);
+  }
+
+  @RobotKeyword("Fail listing the violations when JSON does not match the schema.")
+  @ArgumentNames({"json","schema"})
+  public void jsonShouldMatchSchema(String json, String schema) {
+    JsonSchemas.assertValid(JsonSchemas.parse(json), schema, "JSON");
+  }
+
+  @RobotKeyword("Fail listing the violations when a JSON file does not match the schema.")
+  @ArgumentNames({"path","schema"})
+  public void jsonFileShouldMatchSchema(String path, String schema) {
+    JsonSchemas.assertValid(JsonSchemas.parse(Path.of(path)), schema, path);
+  }
+
+  @RobotKeyword("Drop all compiled schemas; returns how many were cached.")
+  public int clearJsonSchemaCache() {
+    int n = JsonSchemas.cached();
+    JsonSchemas.clear();
+    return n;
+  }
+
+  @RobotKeyword("Structural diff of two JSON documents (text or file paths) in one streaming pass. ignorePaths: list "
+      + "or comma-separated, e.g. $.meta.*, $.items[*].updatedAt, $..id. Numbers within tolerance are equal. "
+      + "Returns {equal, differences, truncated, diffs: [{path, kind, left, right}]} with at most maxDiffs entries.")
+  @ArgumentNames({"left","right","ignorePaths=","tolerance=0","maxDiffs=100"})
+  public Map<String,Object> jsonDiff(String left, String right, Object ignorePaths, double tolerance, int maxDiffs) {
+    return new JsonDiff(JsonDocs.pathList(ignorePaths), tolerance, maxDiffs).compare(left, right);
+  }
+
+  @RobotKeyword("Json Diff with at most 100 differences listed.")
+  @ArgumentNames({"left","right","ignorePaths","tolerance"})
+  public Map<String,Object> jsonDiff(String left, String right, Object ignorePaths, double tolerance) {
+    return jsonDiff(left, right, ignorePaths, tolerance, 100);
+  }
+
+  @RobotKeyword("Json Diff with tolerance 0 and at most 100 differences listed.")
+  @ArgumentNames({"left","right","ignorePaths"})
+  public Map<String,Object> jsonDiff(String left, String right, Object ignorePaths) {
+    return jsonDiff(left, right, ignorePaths, 0, 100);
+  }
+
+  @RobotKeyword("Json Diff of whole documents.")
+  @ArgumentNames({"left","right"})
+  public Map<String,Object> jsonDiff(String left, String right) {
+    return jsonDiff(left, right, "", 0, 100);
+  }
+
+  @RobotKeyword("Fail listing the differences when two JSON documents (text or file paths) differ structurally.")
+  @ArgumentNames({"left","right","ignorePaths=","tolerance=0"})
+  public void jsonShouldBeEquivalent(String left, String right, Object ignorePaths, double tolerance) {
+    Map<String,Object> d = jsonDiff(left, right, ignorePaths, tolerance, 20);
+    if (Boolean.TRUE.equals(d.get("equal"))) return;
+    StringBuilder sb = new StringBuilder("JSON differs (").append(d.get("differences")).append(" differences):");
+    for (Object o : (List<?>) d.get("diffs")) {
+      Map<?,?> m = (Map<?,?>) o;
+      sb.append("\n  ").append(m.get("kind")).append(' ').append(m.get("path"))
+          .append(": ").append(m.get("left")).append(" != ").append(m.get("right"));
+    }
+    if (Boolean.TRUE.equals(d.get("truncated"))) sb.append("\n  ...");
+    throw new AssertionError(sb.toString());
+  }
+
+  @RobotKeyword("Json Should Be Equivalent with tolerance 0.")
+  @ArgumentNames({"left","right","ignorePaths"})
+  public void jsonShouldBeEquivalent(String left, String right, Object ignorePaths) {
+    jsonShouldBeEquivalent(left, right, ignorePaths, 0);
+  }
+
+  @RobotKeyword("Json Should Be Equivalent over whole documents.")
+  @ArgumentNames({"left","right"})
+  public void jsonShouldBeEquivalent(String left, String right) {
+    jsonShouldBeEquivalent(left, right, "", 0);
+  }
+
+  @RobotKeyword("Count records of a JSON Lines (or top-level array) file, streaming; filters: path=value, path!=value, path.")
+  @ArgumentNames({"path","filters="})
+  public Map<String,Long> countJsonRecords(String path, Object filters) {
+    return JsonStream.count(Path.of(path), JsonDocs.pathList(filters));
+  }
+
+  @RobotKeyword("Count every record of a JSON Lines (or top-level array) file, streaming.")
+  @ArgumentNames({"path"})
+  public Map<String,Long> countJsonRecords(String path) {
+    return countJsonRecords(path, "");
+  }
+
+  @RobotKeyword("Write records matching every filter to outPath as JSON Lines, streaming; returns counts.")
+  @ArgumentNames({"path","outPath","filters"})
+  public Map<String,Long> filterJsonRecords(String path, String outPath, Object filters) {
+    return JsonStream.filter(Path.of(path), Path.of(outPath), JsonDocs.pathList(filters));
+  }
+
+  @RobotKeyword("Write the value at jsonPath ($.a.b[0]) of every record to outPath as JSON Lines; returns counts.")
+  @ArgumentNames({"path","jsonPath","outPath","distinct=false"})
+  public Map<String,Long> extractJsonRecords(String path, String jsonPath, String outPath, boolean distinct) {
+    return JsonStream.extract(Path.of(path), jsonPath, Path.of(outPath), distinct);
+  }
+
+  @RobotKeyword("Extract Json Records keeping duplicates.")
+  @ArgumentNames({"path","jsonPath","outPath"})
+  public Map<String,Long> extractJsonRecords(String path, String jsonPath, String outPath) {
+    return extractJsonRecords(path, jsonPath, outPath, false);
+  }
+
+  @RobotKeyword("Deep-merge overlay into base file to outPath; base is streamed, overlay wins.")
+  @ArgumentNames({"basePath","overlayPath","outPath"})
+  public String mergeJsonFiles(String basePath, String overlayPath, String outPath) {
+    JsonStream.merge(Path.of(basePath), Path.of(overlayPath), Path.of(outPath));
+    return outPath;
+  }
+
+  @RobotKeyword("Pretty-print (or compact) a JSON file to outPath token by token; returns root values written.")
+  @ArgumentNames({"path","outPath","compact=false"})
+  public long prettyJsonFile(String path, String outPath, boolean compact) {
+    return JsonStream.pretty(Path.of(path), Path.of(outPath), compact);
+  }
+
+  @RobotKeyword("Pretty-print a JSON file to outPath token by token; returns root values written.")
+  @ArgumentNames({"path","outPath"})
+  public long prettyJsonFile(String path, String outPath) {
+    return prettyJsonFile(path, outPath, false);
+  }
+
+  @RobotKeyword("Fill ${name}, ${env:NAME} and ${now:iso} placeholders; the template is compiled once and cached.")
+  @ArgumentNames({"template","vars={}"})
+  public String renderTemplate(String template, Object vars) {
+    return TemplateUtils.compile(template).render(vars(vars));
+  }
+
+  @RobotKeyword("Render a template file to outPath, streaming; returns outPath.")
+  @ArgumentNames({"path","outPath","vars={}"})
+  public String renderTemplateFile(String path, String outPath, Object vars) {
+    TemplateUtils.renderFile(Path.of(path), Path.of(outPath), TemplateUtils.vars(vars(vars)));
+    return outPath;
+  }
+
+  /** Robot dictionary or JSON object text. */
+  @SuppressWarnings("unchecked")
+  private static Map<String,Object> vars(Object in) {
+    if (in == null) return Map.of();
+    if (in instanceof Map) return (Map<String,Object>) in;
+    String s = String.valueOf(in).trim();
+    if (s.isEmpty() || "{}".equals(s)) return Map.of();
+    try {
+      return MAPPER.readValue(s, new TypeReference<Map<String,Object>>(){});
+    } catch (Exception e) {
+      throw new IllegalArgumentException("vars must be a dictionary or JSON object string. Got: " + s, e);
+    }
+  }
 }
@@ -0,0 +1,16 @@
+package com.example.rf.keywords;
+
+import com.example.rf.keywords.core.KeywordMetrics;
+import org.robotframework.javalib.annotation.RobotKeyword;
+import org.robotframework.javalib.annotation.RobotKeywords;
+
+@RobotKeywords
+public class MetricsKeywords {
+  public static final String ROBOT_LIBRARY_SCOPE = "GLOBAL";
+
+  @RobotKeyword("Return keyword call counts, errors, in-flight and latency histograms as Prometheus text.")
+  public String dumpKeywordMetrics() { return KeywordMetrics.render(); }
+
+  @RobotKeyword("Zero all keyword counters and histograms (gauges are sampled live).")
+  public void resetKeywordMetrics() { KeywordMetrics.reset(); }
+}
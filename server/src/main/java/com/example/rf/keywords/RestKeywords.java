@@ -1,23 +1,52 @@
 package com.example.rf.keywords;
 
+import com.example.rf.keywords.core.ApiResponse;
 import com.example.rf.keywords.core.ApiSessionStore;
-import com.example.rf.keywords.core.FileUtils;
+import com.example.rf.keywords.core.EnvUtils;
+import com.example.rf.keywords.core.HttpClientEngine;
+import com.example.rf.keywords.core.JsonDocs;
+import com.example.rf.keywords.core.JsonSchemas;
+import com.example.rf.keywords.core.KeywordMetrics;
+import com.example.rf.keywords.core.LoadRunner;
+import com.example.rf.keywords.core.Namespaced;
+import com.example.rf.keywords.core.ResponseStore;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import org.robotframework.javalib.annotation.ArgumentNames;
 import org.robotframework.javalib.annotation.RobotKeyword;
 import org.robotframework.javalib.annotation.RobotKeywords;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.restassured.RestAssured.given;
 
 @RobotKeywords
 public class RestKeywords {
   public static final String ROBOT_LIBRARY_SCOPE = "GLOBAL";
-  private final Map<String, Response> lastByAlias = new HashMap<>();
+  /** How long keywords reading an alias wait for a response started with Start Get/Post. */
+  private static final double ASYNC_TIMEOUT_SEC = Double.parseDouble(EnvUtils.get("rf.http.timeoutSec", "60"));
+  // per caller namespace (pabot worker), see CallerContext; Start* keywords store pending futures
+  private final ResponseStore responses = new ResponseStore();
+  private final Namespaced<Map<String, LoadRunner.Result>> loads = new Namespaced<>(ConcurrentHashMap::new);
+
+  public RestKeywords() {
+    KeywordMetrics.gauge("rf_rest_response_store", "Response alias store occupancy and counters.", "stat",
+        responses::stats);
+  }
 
   // ---------- Session keywords ----------
 
@@ -27,6 +56,13 @@ public class RestKeywords {
     ApiSessionStore.put(name, baseUrl, coerceHeaders(headers));
   }
 
+  @RobotKeyword("Create API Session on a chosen engine: restassured (default) or httpclient "
+      + "(shared pooled java.net.http client with keep-alive and HTTP/2).")
+  @ArgumentNames({"name", "baseUrl", "headers={}", "engine=restassured"})
+  public void createApiSession(String name, String baseUrl, Object headers, String engine) {
+    ApiSessionStore.put(name, baseUrl, coerceHeaders(headers), ApiSessionStore.Engine.parse(engine));
+  }
+
   @RobotKeyword("Create an API session without headers.")
   @ArgumentNames({"name", "baseUrl"})
   public void createApiSession(String name, String baseUrl) {
@@ -36,8 +72,14 @@ public class RestKeywords {
   @RobotKeyword("Set Bearer token on an existing API session")
   @ArgumentNames({"name", "token"})
   public void setBearer(String name, String token) {
-    var spec = ApiSessionStore.get(name);
-    spec.header("Authorization", "Bearer " + token);
+    ApiSessionStore.header(name, "Authorization", "Bearer " + token);
+  }
+
+  @RobotKeyword("Drop all sessions, saved responses and load runs of the calling namespace (e.g. in suite teardown).")
+  public void clearCallerNamespace() {
+    responses.removeNamespace();
+    loads.remove();
+    ApiSessionStore.clearNamespace();
   }
 
   // ---------- HTTP verbs ----------
@@ -45,33 +87,86 @@ public class RestKeywords {
   @RobotKeyword("GET request; params optional; response saved under alias.")
   @ArgumentNames({"session", "path", "params={}", "alias=last"})
   public void get(String session, String path, Object params, String alias) {
-    Response r = given()
-        .spec(ApiSessionStore.get(session))
-        .params(coerceParams(params))
-        .when().get(path);
-    lastByAlias.put(alias, r);
+    responses.put(alias, CompletableFuture.completedFuture(
+        send(ApiSessionStore.session(session), "GET", path, coerceParams(params), null)));
   }
 
   @RobotKeyword("POST request with body string; response saved under alias.")
   @ArgumentNames({"session", "path", "body", "alias=last"})
   public void post(String session, String path, String body, String alias) {
-    Response r = given()
-        .spec(ApiSessionStore.get(session))
-        .header("Content-Type","application/json")
-        .body(body)
-        .when().post(path);
-    lastByAlias.put(alias, r);
+    responses.put(alias, CompletableFuture.completedFuture(
+        send(ApiSessionStore.session(session), "POST", path, Map.of(), body)));
   }
 
   @RobotKeyword("PATCH request with body string; response saved under alias.")
   @ArgumentNames({"session", "path", "body", "alias=last"})
   public void patch(String session, String path, String body, String alias) {
-    Response r = given()
-        .spec(ApiSessionStore.get(session))
-        .header("Content-Type","application/json")
-        .body(body)
-        .when().patch(path);
-    lastByAlias.put(alias, r);
+    responses.put(alias, CompletableFuture.completedFuture(
+        send(ApiSessionStore.session(session), "PATCH", path, Map.of(), body)));
+  }
+
+  // ---------- Async fan-out ----------
+
+  @RobotKeyword("Start a GET without waiting; the response lands under alias. "
+      + "Keywords reading the alias block until it completes.")
+  @ArgumentNames({"session", "path", "params={}", "alias=last"})
+  public void startGet(String session, String path, Object params, String alias) {
+    responses.put(alias, sendAsync(ApiSessionStore.session(session), "GET", path, coerceParams(params), null));
+  }
+
+  @RobotKeyword("Start Get with query params, saved under last.")
+  @ArgumentNames({"session", "path", "params"})
+  public void startGet(String session, String path, Object params) {
+    startGet(session, path, params, "last");
+  }
+
+  @RobotKeyword("Start Get without query params, saved under last.")
+  @ArgumentNames({"session", "path"})
+  public void startGet(String session, String path) {
+    startGet(session, path, Map.of(), "last");
+  }
+
+  @RobotKeyword("Start a POST without waiting; the response lands under alias.")
+  @ArgumentNames({"session", "path", "body", "alias=last"})
+  public void startPost(String session, String path, String body, String alias) {
+    responses.put(alias, sendAsync(ApiSessionStore.session(session), "POST", path, Map.of(), body));
+  }
+
+  @RobotKeyword("Start Post saved under last.")
+  @ArgumentNames({"session", "path", "body"})
+  public void startPost(String session, String path, String body) {
+    startPost(session, path, body, "last");
+  }
+
+  @RobotKeyword("Wait for the given aliases (list or comma-separated); returns alias -> status code, "
+      + "or the error text for requests that failed.")
+  @ArgumentNames({"aliases", "timeoutSec=30"})
+  public Map<String, Object> awaitResponses(Object aliases, double timeoutSec) {
+    List<String> names = coerceAliases(aliases);
+    Map<String, CompletableFuture<ApiResponse>> wanted = new LinkedHashMap<>();
+    for (String a : names) {
+      CompletableFuture<ApiResponse> f = responses.get(a);
+      if (f == null) throw new IllegalStateException("No response under alias " + a);
+      wanted.put(a, f);
+    }
+    return awaitAll(wanted, timeoutSec);
+  }
+
+  @RobotKeyword("Await Responses with a 30s timeout.")
+  @ArgumentNames({"aliases"})
+  public Map<String, Object> awaitResponses(Object aliases) {
+    return awaitResponses(aliases, 30);
+  }
+
+  @RobotKeyword("Wait for every response of the caller, including ones started with Start Get/Post.")
+  @ArgumentNames({"timeoutSec=30"})
+  public Map<String, Object> awaitAll(double timeoutSec) {
+    return awaitAll(responses.snapshot(), timeoutSec);
+  }
+
+  @RobotKeyword("Await All with a 30s timeout.")
+  public Map<String, Object> awaitAll() {
+    return awaitAll(30);
   }
 
   // ---------- Assertions & utilities ----------
@@ -83,49 +178,326 @@ public class RestKeywords {
     if (r.statusCode() != expected) {
       throw new AssertionError("Expected " + expected + " got " + r.statusCode()
           + "; timeMs=" + r.time()
-          + "; body=" + r.asString());
+          + "; body=" + preview(r));
     }
   }
 
+  @RobotKeyword("Fail listing the violations when the response body does not match a JSON Schema "
+      + "(inline JSON, classpath:name or file path); the compiled schema is cached.")
+  @ArgumentNames({"alias","schema"})
+  public void responseShouldMatchSchema(String alias, String schema) {
+    JsonSchemas.assertValid(JsonSchemas.parse(must(alias).asByteArray()), schema, "Response " + alias);
+  }
+
   @RobotKeyword("Extract JsonPath value from response body and return as string.")
   @ArgumentNames({"alias","jsonPath"})
   public String extractJsonPath(String alias, String jsonPath) {
-    String body = must(alias).asString();
-    String path = normalizeJsonPath(jsonPath); // support both $.a.b and a.b
-    Object v = io.restassured.path.json.JsonPath.from(body).get(path);
-
-    // Auto-flatten single-item lists for convenience
-    if (v instanceof java.util.List) {
-      java.util.List<?> list = (java.util.List<?>) v;
-      if (list.size() == 1) v = list.get(0);
-    }
-    return v == null ? "" : String.valueOf(v);
+    return extract(must(alias), jsonPath);
   }
 
   @RobotKeyword("Assert JsonPath equals expected string.")
   @ArgumentNames({"alias","jsonPath","expected"})
   public void jsonPathShouldBe(String alias, String jsonPath, String expected) {
-    String got = extractJsonPath(alias, jsonPath);
+    ApiResponse r = must(alias);
+    String got = extract(r, jsonPath);
     if (!String.valueOf(expected).equals(got)) {
       throw new AssertionError(
-        "JsonPath '" + jsonPath + "' expected [" + expected + "] but got [" + got + "]; body=" + must(alias).asString());
+        "JsonPath '" + jsonPath + "' expected [" + expected + "] but got [" + got + "]; body=" + preview(r));
+    }
+  }
+
+  @RobotKeyword("Extract many JsonPaths (list, or comma-separated outside brackets) in one call; returns path -> value.")
+  @ArgumentNames({"alias","jsonPaths"})
+  public Map<String, String> extractJsonPaths(String alias, Object jsonPaths) {
+    ApiResponse r = must(alias);
+    Map<String, String> out = new LinkedHashMap<>();
+    for (String p : JsonDocs.pathList(jsonPaths)) out.put(p, extract(r, p));
+    return out;
+  }
+
+  @RobotKeyword("Assert many JsonPaths at once from a dict/JSON of path -> expected; reports every mismatch.")
+  @ArgumentNames({"alias","expected"})
+  public void jsonPathsShouldBe(String alias, Object expected) {
+    ApiResponse r = must(alias);
+    StringBuilder diffs = new StringBuilder();
+    for (var e : coerceExpected(expected).entrySet()) {
+      String got = extract(r, e.getKey());
+      if (!String.valueOf(e.getValue()).equals(got)) {
+        diffs.append("\n  '").append(e.getKey()).append("' expected [").append(e.getValue())
+             .append("] but got [").append(got).append(']');
+      }
     }
+    if (diffs.length() > 0) throw new AssertionError("JsonPath mismatches:" + diffs + "\nbody=" + preview(r));
   }
 
-  @RobotKeyword("Write response body to a file.")
+  @RobotKeyword("Write response body to a file, as received (no re-encoding).")
   @ArgumentNames({"alias","filePath"})
   public void saveBody(String alias, String filePath) {
-    FileUtils.writeString(filePath, must(alias).asString());
+    must(alias).writeTo(Path.of(filePath));
+  }
+
+  @RobotKeyword("Stream a GET response body straight to a file, hashing it on the way; maxBytes=0 means no limit. "
+      + "The alias keeps status, size and SHA-256 and reads the body back from the file only when asked. "
+      + "Returns status, bytes, sha256 and file.")
+  @ArgumentNames({"session", "path", "filePath", "params={}", "maxBytes=0", "alias=last"})
+  public Map<String, Object> downloadBody(String session, String path, String filePath, Object params,
+                                          long maxBytes, String alias) {
+    // always on the JDK client: RestAssured buffers the whole body before handing it over
+    ApiResponse r = HttpClientEngine.download(ApiSessionStore.session(session), "GET", path,
+        coerceParams(params), Path.of(filePath), maxBytes);
+    responses.put(alias, CompletableFuture.completedFuture(r));
+    Map<String, Object> out = new LinkedHashMap<>();
+    out.put("status", r.statusCode());
+    out.put("bytes", r.size());
+    out.put("sha256", r.sha256());
+    out.put("file", filePath);
+    return out;
+  }
+
+  @RobotKeyword("Download Body with query params, no size limit, saved as last.")
+  @ArgumentNames({"session", "path", "filePath", "params"})
+  public Map<String, Object> downloadBody(String session, String path, String filePath, Object params) {
+    return downloadBody(session, path, filePath, params, 0, "last");
+  }
+
+  @RobotKeyword("Download Body with no size limit, saved as last.")
+  @ArgumentNames({"session", "path", "filePath"})
+  public Map<String, Object> downloadBody(String session, String path, String filePath) {
+    return downloadBody(session, path, filePath, Map.of(), 0, "last");
+  }
+
+  @RobotKeyword("Assert the SHA-256 (hex, optional sha256: prefix) of a response body.")
+  @ArgumentNames({"alias","expectedSha256"})
+  public void bodyDigestShouldBe(String alias, String expectedSha256) {
+    String want = expectedSha256.trim().toLowerCase();
+    if (want.startsWith("sha256:")) want = want.substring(7);
+    String got = must(alias).sha256();
+    if (!got.equals(want)) {
+      throw new AssertionError("SHA-256 of '" + alias + "' expected [" + want + "] but got [" + got + "]");
+    }
+  }
+
+  @RobotKeyword("Assert a response body is smaller than maxBytes.")
+  @ArgumentNames({"alias","maxBytes"})
+  public void bodySizeShouldBeBelow(String alias, long maxBytes) {
+    long got = must(alias).size();
+    if (got >= maxBytes) {
+      throw new AssertionError("Body of '" + alias + "' is " + got + " bytes, expected below " + maxBytes);
+    }
+  }
+
+  @RobotKeyword("Response alias store stats: entries, heap_bytes, disk_bytes, max_bytes, hits, misses, "
+      + "spills, expired and evictions (server-wide).")
+  public Map<String, Long> responseStoreStats() {
+    return responses.stats();
+  }
+
+  // ---------- Load generation ----------
+
+  @RobotKeyword("Send N requests through a session; ratePerSec=0 runs closed-loop at the given concurrency. "
+      + "Returns requests, errors, throughput, p50Ms/p90Ms/p99Ms/maxMs and per-status counts; saved under alias.")
+  @ArgumentNames({"session", "method", "path", "requests", "concurrency=10", "ratePerSec=0", "body=", "alias=last-load"})
+  public Map<String, Object> runLoad(String session, String method, String path, int requests,
+                                     int concurrency, double ratePerSec, String body, String alias) {
+    // resolve on the caller thread: workers do not carry the caller namespace
+    ApiSessionStore.Session s = ApiSessionStore.session(session);
+    String verb = method.trim().toUpperCase();
+    String payload = body == null || body.isEmpty() ? null : body;
+    LoadRunner.Result res = LoadRunner.run(requests, concurrency, ratePerSec,
+        () -> send(s, verb, path, Map.of(), payload).statusCode());
+    loads.current().put(alias, res);
+    return res.toMap();
+  }
+
+  @RobotKeyword("Run Load with a body, saved as last-load.")
+  @ArgumentNames({"session", "method", "path", "requests", "concurrency", "ratePerSec", "body"})
+  public Map<String, Object> runLoad(String session, String method, String path, int requests,
+                                     int concurrency, double ratePerSec, String body) {
+    return runLoad(session, method, path, requests, concurrency, ratePerSec, body, "last-load");
+  }
+
+  @RobotKeyword("Run Load without a body, saved as last-load.")
+  @ArgumentNames({"session", "method", "path", "requests", "concurrency", "ratePerSec"})
+  public Map<String, Object> runLoad(String session, String method, String path, int requests,
+                                     int concurrency, double ratePerSec) {
+    return runLoad(session, method, path, requests, concurrency, ratePerSec, "", "last-load");
+  }
+
+  @RobotKeyword("Closed-loop Run Load without a body, saved as last-load.")
+  @ArgumentNames({"session", "method", "path", "requests", "concurrency"})
+  public Map<String, Object> runLoad(String session, String method, String path, int requests, int concurrency) {
+    return runLoad(session, method, path, requests, concurrency, 0, "", "last-load");
+  }
+
+  @RobotKeyword("Closed-loop Run Load at concurrency 10 without a body, saved as last-load.")
+  @ArgumentNames({"session", "method", "path", "requests"})
+  public Map<String, Object> runLoad(String session, String method, String path, int requests) {
+    return runLoad(session, method, path, requests, 10, 0, "", "last-load");
+  }
+
+  @RobotKeyword("Assert a latency percentile of a load run is below a limit such as 250ms or 1.5s.")
+  @ArgumentNames({"alias", "percentile", "limit"})
+  public void loadPercentileShouldBeBelow(String alias, double percentile, String limit) {
+    LoadRunner.Result res = mustLoad(alias);
+    double got = res.latency().percentileMillis(percentile);
+    double max = parseMillis(limit);
+    if (got >= max) {
+      throw new AssertionError("p" + percentile + " of '" + alias + "' is " + got + "ms, expected below "
+          + max + "ms; " + res.toMap());
+    }
+  }
+
+  @RobotKeyword("Assert p99 latency of a load run is below a limit, e.g. p99 Should Be Below  last-load  250ms.")
+  @ArgumentNames({"alias", "limit"})
+  public void p99ShouldBeBelow(String alias, String limit) {
+    loadPercentileShouldBeBelow(alias, 99, limit);
+  }
+
+  @RobotKeyword("Assert the error percentage (status >= 400 or exception) of a load run is below a limit.")
+  @ArgumentNames({"alias", "maxPercent"})
+  public void loadErrorRateShouldBeBelow(String alias, double maxPercent) {
+    LoadRunner.Result res = mustLoad(alias);
+    if (res.errorRatePercent() >= maxPercent) {
+      throw new AssertionError("Error rate of '" + alias + "' is " + res.errorRatePercent()
+          + "%, expected below " + maxPercent + "%; " + res.toMap());
+    }
+  }
+
+  @RobotKeyword("Assert throughput (requests/s) of a load run is at least a minimum.")
+  @ArgumentNames({"alias", "minPerSec"})
+  public void loadThroughputShouldBeAbove(String alias, double minPerSec) {
+    LoadRunner.Result res = mustLoad(alias);
+    if (res.throughput() < minPerSec) {
+      throw new AssertionError("Throughput of '" + alias + "' is " + res.throughput()
+          + "/s, expected at least " + minPerSec + "/s; " + res.toMap());
+    }
   }
 
   // ---------- Internals ----------
 
-  private Response must(String alias) {
-    Response r = lastByAlias.getOrDefault(alias, lastByAlias.get("last"));
-    if (r == null) throw new IllegalStateException("No response under alias " + alias);
+  private LoadRunner.Result mustLoad(String alias) {
+    LoadRunner.Result r = loads.current().get(alias);
+    if (r == null) throw new IllegalStateException("No load run under alias " + alias);
     return r;
   }
 
+  /** Accept '250ms', '1.5s' or a bare number of milliseconds. */
+  private static double parseMillis(String limit) {
+    String s = limit.trim().toLowerCase();
+    if (s.endsWith("ms")) return Double.parseDouble(s.substring(0, s.length() - 2).trim());
+    if (s.endsWith("s"))  return Double.parseDouble(s.substring(0, s.length() - 1).trim()) * 1000;
+    return Double.parseDouble(s);
+  }
+
+  /** One request on the session's engine; a non-null body is sent as application/json. */
+  private static ApiResponse send(ApiSessionStore.Session s, String method, String path,
+                                  Map<String, Object> params, String body) {
+    if (s.engine() == ApiSessionStore.Engine.HTTPCLIENT) {
+      return HttpClientEngine.send(s, method, path, params, body);
+    }
+    RequestSpecification req = given().spec(s.spec());
+    if (!params.isEmpty()) req.params(params);
+    if (body != null) req.header("Content-Type","application/json").body(body);
+    return ApiResponse.of(req.when().request(method, path));
+  }
+
+  private ApiResponse must(String alias) {
+    CompletableFuture<ApiResponse> r = responses.get(alias);
+    if (r == null) r = responses.get("last");
+    if (r == null) throw new IllegalStateException("No response under alias " + alias);
+    return await(alias, r, ASYNC_TIMEOUT_SEC);
+  }
+
+  /** Async requests: the JDK client is natively async, RestAssured runs on a small shared pool. */
+  private static CompletableFuture<ApiResponse> sendAsync(ApiSessionStore.Session s, String method, String path,
+                                                          Map<String, Object> params, String body) {
+    if (s.engine() == ApiSessionStore.Engine.HTTPCLIENT) {
+      return HttpClientEngine.sendAsync(s, method, path, params, body);
+    }
+    return CompletableFuture.supplyAsync(() -> send(s, method, path, params, body), AsyncPool.EXECUTOR);
+  }
+
+  private static final class AsyncPool {
+    static final ExecutorService EXECUTOR;
+    static {
+      AtomicInteger n = new AtomicInteger();
+      EXECUTOR = Executors.newFixedThreadPool(Integer.parseInt(EnvUtils.get("rf.http.asyncThreads", "32")), r -> {
+        Thread t = new Thread(r, "rf-rest-async-" + n.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+      });
+    }
+  }
+
+  private static ApiResponse await(String alias, CompletableFuture<ApiResponse> f, double timeoutSec) {
+    try {
+      return f.get((long) (timeoutSec * 1000), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      throw new AssertionError("Response under alias " + alias + " not ready within " + timeoutSec + "s");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted waiting for alias " + alias, e);
+    } catch (ExecutionException e) {
+      Throwable c = e.getCause();
+      if (c instanceof RuntimeException) throw (RuntimeException) c;
+      if (c instanceof Error) throw (Error) c;
+      throw new RuntimeException("Request under alias " + alias + " failed: " + c, c);
+    }
+  }
+
+  /** Waits against one shared deadline, so the total wait is bounded by the slowest request. */
+  private static Map<String, Object> awaitAll(Map<String, CompletableFuture<ApiResponse>> futures, double timeoutSec) {
+    long deadline = System.nanoTime() + (long) (timeoutSec * 1e9);
+    Map<String, Object> out = new LinkedHashMap<>();
+    List<String> pending = new ArrayList<>();
+    for (var e : futures.entrySet()) {
+      long left = deadline - System.nanoTime();
+      try {
+        out.put(e.getKey(), e.getValue().get(Math.max(0, left), TimeUnit.NANOSECONDS).statusCode());
+      } catch (TimeoutException te) {
+        pending.add(e.getKey());
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while awaiting responses", ie);
+      } catch (ExecutionException ee) {
+        out.put(e.getKey(), "ERROR: " + ee.getCause());
+      }
+    }
+    if (!pending.isEmpty()) {
+      throw new AssertionError("Responses not ready within " + timeoutSec + "s: " + pending);
+    }
+    return out;
+  }
+
+  private static List<String> coerceAliases(Object aliases) {
+    List<String> out = new ArrayList<>();
+    if (aliases instanceof Object[]) aliases = List.of((Object[]) aliases);
+    if (aliases instanceof List) {
+      for (Object a : (List<?>) aliases) out.add(String.valueOf(a).trim());
+    } else {
+      for (String a : String.valueOf(aliases).split(",")) if (!a.isBlank()) out.add(a.trim());
+    }
+    return out;
+  }
+
+  private static String extract(ApiResponse r, String jsonPath) {
+    String path = normalizeJsonPath(jsonPath); // support both $.a.b and a.b
+    Object v = JsonDocs.gpath(r, path);
+
+    // Auto-flatten single-item lists for convenience
+    if (v instanceof java.util.List) {
+      java.util.List<?> list = (java.util.List<?>) v;
+      if (list.size() == 1) v = list.get(0);
+    }
+    return v == null ? "" : String.valueOf(v);
+  }
+
+  /** Body for failure messages, capped so a multi-MB response does not flood the log. */
+  private static String preview(ApiResponse r) {
+    String b = r.asString();
+    return b.length() <= 4096 ? b : b.substring(0, 4096) + "...(" + b.length() + " chars)";
+  }
+
   /** Accept both '$.args.foo' and 'args.foo' for RestAssured's GPath engine. */
   private static String normalizeJsonPath(String p) {
     if (p == null) return null;
@@ -154,6 +526,25 @@ public class RestKeywords {
     }
   }
 
+  /** path -> expected value, in the order given when the input is JSON text. */
+  private static Map<String, String> coerceExpected(Object expected) {
+    if (expected == null) return Map.of();
+    Map<String, String> out = new LinkedHashMap<>();
+    if (expected instanceof Map) {
+      ((Map<?, ?>) expected).forEach((k, v) -> out.put(String.valueOf(k), v == null ? "" : String.valueOf(v)));
+      return out;
+    }
+    String s = String.valueOf(expected).trim();
+    if (s.isEmpty() || "{}".equals(s)) return Map.of();
+    try {
+      new ObjectMapper().readValue(s, new TypeReference<Map<String, Object>>() {})
+          .forEach((k, v) -> out.put(k, v == null ? "" : String.valueOf(v)));
+      return out;
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Expected values must be a path -> value Map or JSON object string. Got: " + s, e);
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private static Map<String, Object> coerceParams(Object params) {
     if (params == null) return Map.of();
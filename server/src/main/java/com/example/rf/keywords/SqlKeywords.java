@@ -1,51 +1,330 @@
 package com.example.rf.keywords;
 
+import com.example.rf.keywords.core.KeywordMetrics;
+import com.example.rf.keywords.core.QueryCompare;
+import com.example.rf.keywords.core.ResultSetExport;
+import com.example.rf.keywords.core.RowSource;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import org.robotframework.javalib.annotation.*;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
 
 @RobotKeywords
 public class SqlKeywords {
   public static final String ROBOT_LIBRARY_SCOPE = "GLOBAL";
+  private static final ObjectMapper MAPPER = new ObjectMapper();
   private final Map<String, HikariDataSource> pools = new ConcurrentHashMap<>();
+  private final Map<String, Cursor> cursors = new ConcurrentHashMap<>();
+  private final AtomicLong cursorSeq = new AtomicLong();
+
+  public SqlKeywords() {
+    poolGauge("rf_sql_pool_active_connections", "Connections in use per pool.", HikariPoolMXBean::getActiveConnections);
+    poolGauge("rf_sql_pool_idle_connections", "Idle connections per pool.", HikariPoolMXBean::getIdleConnections);
+    poolGauge("rf_sql_pool_total_connections", "Open connections per pool.", HikariPoolMXBean::getTotalConnections);
+    poolGauge("rf_sql_pool_pending_threads", "Threads waiting for a connection per pool.", HikariPoolMXBean::getThreadsAwaitingConnection);
+  }
 
   @RobotKeyword("Create a named SQL connection pool.")
   @ArgumentNames({"name","jdbcUrl","user","password"})
   public void connect(String name, String jdbcUrl, String user, String password) {
+    connect(name, jdbcUrl, user, password, Map.of());
+  }
+
+  @RobotKeyword("Create a named SQL connection pool with options (dict/JSON): poolSize, "
+      + "rewriteBatchedStatements (MySQL multi-row batch inserts), and any other key as a driver property.")
+  @ArgumentNames({"name","jdbcUrl","user","password","options={}"})
+  public void connect(String name, String jdbcUrl, String user, String password, Object options) {
     HikariConfig cfg = new HikariConfig();
     cfg.setJdbcUrl(jdbcUrl);
     cfg.setUsername(user);
     cfg.setPassword(password);
     cfg.setMaximumPoolSize(5);
+    statementCache(cfg, jdbcUrl);
+    coerceMap(options).forEach((k, v) -> {
+      if ("poolSize".equals(k)) cfg.setMaximumPoolSize(Integer.parseInt(String.valueOf(v)));
+      else cfg.addDataSourceProperty(k, String.valueOf(v));
+    });
     pools.put(name, new HikariDataSource(cfg));
   }
 
   @RobotKeyword("Execute SELECT and return list of dict rows.")
   @ArgumentNames({"name","sql"})
   public List<Map<String,Object>> select(String name, String sql) {
-    try (Connection c = pools.get(name).getConnection();
+    try (Connection c = pool(name).getConnection();
          Statement st = c.createStatement();
          ResultSet rs = st.executeQuery(sql)) {
-      List<Map<String,Object>> out = new ArrayList<>();
-      var md = rs.getMetaData();
-      int cols = md.getColumnCount();
-      while (rs.next()) {
-        Map<String,Object> row = new LinkedHashMap<>();
-        for (int i=1;i<=cols;i++) row.put(md.getColumnLabel(i), rs.getObject(i));
-        out.add(row);
+      return rows(rs);
+    } catch (SQLException e) { throw new RuntimeException(e); }
+  }
+
+  @RobotKeyword("SELECT with ? parameters (list/JSON array) through a cached prepared statement; returns dict rows.")
+  @ArgumentNames({"name","sql","params=[]"})
+  public List<Map<String,Object>> selectWithParams(String name, String sql, Object params) {
+    try (Connection c = pool(name).getConnection();
+         PreparedStatement ps = c.prepareStatement(sql)) {
+      bind(ps, coerceList(params));
+      try (ResultSet rs = ps.executeQuery()) {
+        return rows(rs);
       }
+    } catch (SQLException e) { throw new RuntimeException(e); }
+  }
+
+  @RobotKeyword("Select With Params for a statement without parameters.")
+  @ArgumentNames({"name","sql"})
+  public List<Map<String,Object>> selectWithParams(String name, String sql) {
+    return selectWithParams(name, sql, List.of());
+  }
+
+  @RobotKeyword("UPDATE/INSERT/DELETE with ? parameters (list/JSON array); returns update count.")
+  @ArgumentNames({"name","sql","params=[]"})
+  public int executeWithParams(String name, String sql, Object params) {
+    try (Connection c = pool(name).getConnection();
+         PreparedStatement ps = c.prepareStatement(sql)) {
+      bind(ps, coerceList(params));
+      return ps.executeUpdate();
+    } catch (SQLException e) { throw new RuntimeException(e); }
+  }
+
+  @RobotKeyword("Execute With Params for a statement without parameters.")
+  @ArgumentNames({"name","sql"})
+  public int executeWithParams(String name, String sql) {
+    return executeWithParams(name, sql, List.of());
+  }
+
+  @RobotKeyword("Bulk-run one statement over many rows with JDBC batching, committing every chunkSize rows. "
+      + "rows: list of lists/dicts, JSON array, or a .csv/.jsonl file path. ? binds list rows in order; "
+      + ":column binds dict rows by name. Returns rows, chunks, elapsedMs and rowsPerSec.")
+  @ArgumentNames({"name","sql","rows","chunkSize=1000"})
+  public Map<String,Object> executeBatch(String name, String sql, Object rows, int chunkSize) {
+    if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be positive. Got: " + chunkSize);
+    List<String> names = new ArrayList<>();
+    String jdbcSql = namedToPositional(sql, names);
+    long t0 = System.nanoTime();
+    long done = 0, chunks = 0;
+    int inChunk = 0;
+    try (RowSource src = RowSource.open(rows);
+         Connection c = pool(name).getConnection()) {
+      c.setAutoCommit(false);
+      try (PreparedStatement ps = c.prepareStatement(jdbcSql)) {
+        while (src.hasNext()) {
+          bind(ps, values(src.next(), names, done + inChunk));
+          ps.addBatch();
+          if (++inChunk == chunkSize) {
+            ps.executeBatch();
+            c.commit();
+            done += inChunk;
+            chunks++;
+            inChunk = 0;
+          }
+        }
+        if (inChunk > 0) {
+          ps.executeBatch();
+          c.commit();
+          done += inChunk;
+          chunks++;
+        }
+      } catch (SQLException | RuntimeException e) {
+        try { c.rollback(); } catch (SQLException ignored) { /* report the original failure */ }
+        throw new RuntimeException("Execute Batch failed in chunk " + (chunks + 1) + " (rolled back); "
+            + done + " rows committed before it: " + e.getMessage(), e);
+      }
+    } catch (SQLException e) { throw new RuntimeException(e); }
+    long ms = (System.nanoTime() - t0) / 1_000_000L;
+    Map<String,Object> out = new LinkedHashMap<>();
+    out.put("rows", done);
+    out.put("chunks", chunks);
+    out.put("elapsedMs", ms);
+    out.put("rowsPerSec", ms == 0 ? done * 1000.0 : Math.round(done * 1000.0 / ms * 10) / 10.0);
+    return out;
+  }
+
+  @RobotKeyword("Execute Batch committing every 1000 rows.")
+  @ArgumentNames({"name","sql","rows"})
+  public Map<String,Object> executeBatch(String name, String sql, Object rows) {
+    return executeBatch(name, sql, rows, 1000);
+  }
+
+  @RobotKeyword("Number of rows a query returns, counted by the database (the query is wrapped in COUNT(*)).")
+  @ArgumentNames({"name","sql"})
+  public long selectCount(String name, String sql) {
+    Object v = selectScalar(name, "SELECT COUNT(*) FROM (" + stripSemicolon(sql) + ") rf_count");
+    return v == null ? 0 : ((Number) v).longValue();
+  }
+
+  @RobotKeyword("First column of the first row, or None; no row maps are built.")
+  @ArgumentNames({"name","sql"})
+  public Object selectScalar(String name, String sql) {
+    try (Connection c = pool(name).getConnection();
+         Statement st = c.createStatement()) {
+      st.setMaxRows(1);
+      try (ResultSet rs = st.executeQuery(sql)) {
+        return rs.next() ? ResultSetExport.value(rs, rs.getMetaData(), 1) : null;
+      }
+    } catch (SQLException e) { throw new RuntimeException(e); }
+  }
+
+  @RobotKeyword("Stream a SELECT straight to a CSV or JSON Lines (jsonl) file with the given fetch size. "
+      + "Returns rows, bytes, file and elapsedMs.")
+  @ArgumentNames({"name","sql","filePath","format=csv","fetchSize=1000"})
+  public Map<String,Object> exportQuery(String name, String sql, String filePath, String format, int fetchSize) {
+    String fmt = format == null ? "csv" : format.trim().toLowerCase();
+    if (!fmt.equals("csv") && !fmt.equals("jsonl")) {
+      throw new IllegalArgumentException("format must be csv or jsonl. Got: " + format);
+    }
+    HikariDataSource ds = pool(name);
+    Path file = Path.of(filePath);
+    long t0 = System.nanoTime();
+    long rows;
+    try {
+      if (file.getParent() != null) Files.createDirectories(file.getParent());
+      try (Connection c = ds.getConnection();
+           Statement st = ResultSetExport.streamingStatement(c, ds.getJdbcUrl(), fetchSize);
+           ResultSet rs = st.executeQuery(sql);
+           Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+        rows = fmt.equals("csv") ? ResultSetExport.writeCsv(rs, w) : ResultSetExport.writeJsonLines(rs, w);
+      }
+      Map<String,Object> out = new LinkedHashMap<>();
+      out.put("rows", rows);
+      out.put("bytes", Files.size(file));
+      out.put("file", filePath);
+      out.put("elapsedMs", (System.nanoTime() - t0) / 1_000_000L);
       return out;
     } catch (SQLException e) { throw new RuntimeException(e); }
+    catch (IOException e) { throw new RuntimeException("Cannot write " + filePath + ": " + e.getMessage(), e); }
+  }
+
+  @RobotKeyword("Export Query as csv or jsonl with fetch size 1000.")
+  @ArgumentNames({"name","sql","filePath","format"})
+  public Map<String,Object> exportQuery(String name, String sql, String filePath, String format) {
+    return exportQuery(name, sql, filePath, format, 1000);
+  }
+
+  @RobotKeyword("Export Query as CSV with fetch size 1000.")
+  @ArgumentNames({"name","sql","filePath"})
+  public Map<String,Object> exportQuery(String name, String sql, String filePath) {
+    return exportQuery(name, sql, filePath, "csv", 1000);
+  }
+
+  @RobotKeyword("Open a streaming cursor over a SELECT; returns a handle for Fetch Next Page. "
+      + "The cursor holds one pool connection until it is exhausted or closed.")
+  @ArgumentNames({"name","sql","pageSize=1000"})
+  public String openCursor(String name, String sql, int pageSize) {
+    if (pageSize <= 0) throw new IllegalArgumentException("pageSize must be positive. Got: " + pageSize);
+    HikariDataSource ds = pool(name);
+    Connection c = null;
+    try {
+      c = ds.getConnection();
+      Statement st = ResultSetExport.streamingStatement(c, ds.getJdbcUrl(), pageSize);
+      ResultSet rs = st.executeQuery(sql);
+      String id = name + "-cursor-" + cursorSeq.incrementAndGet();
+      cursors.put(id, new Cursor(name, c, rs, pageSize));
+      return id;
+    } catch (SQLException e) {
+      if (c != null) try { c.close(); } catch (SQLException ignored) { /* already failing */ }
+      throw new RuntimeException(e);
+    }
+  }
+
+  @RobotKeyword("Open Cursor with pages of 1000 rows.")
+  @ArgumentNames({"name","sql"})
+  public String openCursor(String name, String sql) {
+    return openCursor(name, sql, 1000);
+  }
+
+  @RobotKeyword("Next page of dict rows from a cursor; an empty list means the cursor is exhausted (and closed).")
+  @ArgumentNames({"cursor"})
+  public List<Map<String,Object>> fetchNextPage(String cursor) {
+    Cursor cur = cursors.get(cursor);
+    if (cur == null) return new ArrayList<>(); // exhausted or closed
+    List<Map<String,Object>> page = new ArrayList<>(cur.pageSize);
+    boolean done;
+    synchronized (cur) {
+      try {
+        ResultSetMetaData md = cur.rs.getMetaData();
+        while (page.size() < cur.pageSize && cur.rs.next()) {
+          Map<String,Object> row = new LinkedHashMap<>();
+          for (int i = 0; i < cur.labels.length; i++) row.put(cur.labels[i], ResultSetExport.value(cur.rs, md, i + 1));
+          page.add(row);
+        }
+        done = page.size() < cur.pageSize;
+      } catch (SQLException e) {
+        closeCursor(cursor);
+        throw new RuntimeException(e);
+      }
+    }
+    if (done) closeCursor(cursor);
+    return page;
+  }
+
+  @RobotKeyword("Close a cursor and return its connection to the pool; unknown handles are ignored.")
+  @ArgumentNames({"cursor"})
+  public void closeCursor(String cursor) {
+    Cursor cur = cursors.remove(cursor);
+    if (cur != null) cur.close();
+  }
+
+  @RobotKeyword("Reconcile two queries or tables (pools may differ) by an integer key: per-chunk checksums "
+      + "in parallel, row-level diff only for chunks that differ. Returns equal, row counts, chunk counts, "
+      + "onlyLeft/onlyRight keys and different rows with their column values (up to maxDiffs each).")
+  @ArgumentNames({"leftPool","leftQuery","rightPool","rightQuery","keyColumn","chunkRows=10000","parallelism=4","maxDiffs=100"})
+  public Map<String,Object> compareQueryResults(String leftPool, String leftQuery, String rightPool, String rightQuery,
+                                                String keyColumn, int chunkRows, int parallelism, int maxDiffs) {
+    if (chunkRows <= 0) throw new IllegalArgumentException("chunkRows must be positive. Got: " + chunkRows);
+    return QueryCompare.compare(pool(leftPool), leftQuery, pool(rightPool), rightQuery, keyColumn,
+        chunkRows, parallelism, maxDiffs);
+  }
+
+  @RobotKeyword("Compare Query Results reporting up to 100 differences of each kind.")
+  @ArgumentNames({"leftPool","leftQuery","rightPool","rightQuery","keyColumn","chunkRows","parallelism"})
+  public Map<String,Object> compareQueryResults(String leftPool, String leftQuery, String rightPool, String rightQuery,
+                                                String keyColumn, int chunkRows, int parallelism) {
+    return compareQueryResults(leftPool, leftQuery, rightPool, rightQuery, keyColumn, chunkRows, parallelism, 100);
+  }
+
+  @RobotKeyword("Compare Query Results on 4 threads, reporting up to 100 differences of each kind.")
+  @ArgumentNames({"leftPool","leftQuery","rightPool","rightQuery","keyColumn","chunkRows"})
+  public Map<String,Object> compareQueryResults(String leftPool, String leftQuery, String rightPool, String rightQuery,
+                                                String keyColumn, int chunkRows) {
+    return compareQueryResults(leftPool, leftQuery, rightPool, rightQuery, keyColumn, chunkRows, 4, 100);
+  }
+
+  @RobotKeyword("Compare Query Results in chunks of 10000 rows on 4 threads, reporting up to 100 differences of each kind.")
+  @ArgumentNames({"leftPool","leftQuery","rightPool","rightQuery","keyColumn"})
+  public Map<String,Object> compareQueryResults(String leftPool, String leftQuery, String rightPool, String rightQuery,
+                                                String keyColumn) {
+    return compareQueryResults(leftPool, leftQuery, rightPool, rightQuery, keyColumn, 10000, 4, 100);
+  }
+
+  @RobotKeyword("Fail unless two queries or tables hold the same rows by key; the message lists the first differences.")
+  @ArgumentNames({"leftPool","leftQuery","rightPool","rightQuery","keyColumn"})
+  public void queryResultsShouldMatch(String leftPool, String leftQuery, String rightPool, String rightQuery,
+                                      String keyColumn) {
+    Map<String,Object> r = compareQueryResults(leftPool, leftQuery, rightPool, rightQuery, keyColumn, 10000, 4, 20);
+    if (!Boolean.TRUE.equals(r.get("equal"))) {
+      throw new AssertionError("Query results differ: " + r.get("leftRows") + " vs " + r.get("rightRows") + " rows; "
+          + r.get("onlyLeftCount") + " only left " + r.get("onlyLeft") + ", "
+          + r.get("onlyRightCount") + " only right " + r.get("onlyRight") + ", "
+          + r.get("differentCount") + " different " + r.get("different"));
+    }
   }
 
   @RobotKeyword("Execute UPDATE/INSERT/DELETE and return update count.")
   @ArgumentNames({"name","sql"})
   public int execute(String name, String sql) {
-    try (Connection c = pools.get(name).getConnection();
+    try (Connection c = pool(name).getConnection();
          Statement st = c.createStatement()) {
       return st.executeUpdate(sql);
     } catch (SQLException e) { throw new RuntimeException(e); }
@@ -54,7 +333,167 @@ public class SqlKeywords {
   @RobotKeyword("Close connection pool.")
   @ArgumentNames({"name"})
   public void close(String name) {
+    cursors.values().removeIf(cur -> {
+      if (!cur.pool.equals(name)) return false;
+      cur.close();
+      return true;
+    });
     HikariDataSource ds = pools.remove(name);
     if (ds!=null) ds.close();
   }
+
+  private HikariDataSource pool(String name) {
+    HikariDataSource ds = pools.get(name);
+    if (ds == null) throw new IllegalStateException("No SQL pool named " + name + "; call Connect first");
+    return ds;
+  }
+
+  /**
+   * MySQL only: turn on Connector/J's per-connection prepared-statement cache, so repeated
+   * parameterized keywords skip the parse. Hikari has no statement cache of its own.
+   */
+  private static void statementCache(HikariConfig cfg, String jdbcUrl) {
+    if (jdbcUrl == null || !jdbcUrl.toLowerCase().startsWith("jdbc:mysql:")) return;
+    cfg.addDataSourceProperty("cachePrepStmts", "true");
+    cfg.addDataSourceProperty("prepStmtCacheSize", "250");
+    cfg.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+    cfg.addDataSourceProperty("useServerPrepStmts", "true");
+  }
+
+  /** Every row as a dict keyed by column label, in column order. */
+  private static List<Map<String,Object>> rows(ResultSet rs) throws SQLException {
+    List<Map<String,Object>> out = new ArrayList<>();
+    ResultSetMetaData md = rs.getMetaData();
+    int cols = md.getColumnCount();
+    while (rs.next()) {
+      Map<String,Object> row = new LinkedHashMap<>();
+      for (int i=1;i<=cols;i++) row.put(md.getColumnLabel(i), rs.getObject(i));
+      out.add(row);
+    }
+    return out;
+  }
+
+  private static void bind(PreparedStatement ps, List<?> values) throws SQLException {
+    for (int i = 0; i < values.size(); i++) ps.setObject(i + 1, values.get(i));
+  }
+
+  /**
+   * Parameter values for one batch row: by name for :column templates, in order for ? templates.
+   * Dicts only bind by name; XML-RPC dicts arrive unordered, so their values have no column order.
+   */
+  private static List<?> values(Object row, List<String> names, long index) {
+    if (row instanceof Object[]) row = List.of((Object[]) row);
+    if (names.isEmpty()) {
+      if (row instanceof List) return (List<?>) row;
+      if (row instanceof Map) {
+        throw new IllegalArgumentException("Row " + (index + 1) + " is a dict but the SQL uses ? placeholders; "
+            + "use :column placeholders for dict, .csv and .jsonl rows, or pass rows as lists. Got: " + row);
+      }
+    } else if (row instanceof Map) {
+      Map<?, ?> m = (Map<?, ?>) row;
+      List<Object> out = new ArrayList<>(names.size());
+      for (String n : names) {
+        if (!m.containsKey(n)) throw new IllegalArgumentException("Row " + (index + 1) + " has no column " + n + ": " + m);
+        out.add(m.get(n));
+      }
+      return out;
+    }
+    throw new IllegalArgumentException("Row " + (index + 1) + " must be a list or dict"
+        + (names.isEmpty() ? "" : " (dict for :name parameters)") + ". Got: " + row);
+  }
+
+  /** Replace :name placeholders outside quotes with ?, collecting the names; leaves :: casts alone. */
+  private static String namedToPositional(String sql, List<String> names) {
+    StringBuilder out = new StringBuilder(sql.length());
+    char quote = 0;
+    for (int i = 0; i < sql.length(); i++) {
+      char ch = sql.charAt(i);
+      if (quote != 0) {
+        if (ch == quote) quote = 0;
+        out.append(ch);
+      } else if (ch == '\'' || ch == '"' || ch == '`') {
+        quote = ch;
+        out.append(ch);
+      } else if (ch == ':' && i + 1 < sql.length() && Character.isJavaIdentifierStart(sql.charAt(i + 1))
+          && (i == 0 || sql.charAt(i - 1) != ':')) {
+        int j = i + 1;
+        while (j < sql.length() && Character.isJavaIdentifierPart(sql.charAt(j))) j++;
+        names.add(sql.substring(i + 1, j));
+        out.append('?');
+        i = j - 1;
+      } else {
+        out.append(ch);
+      }
+    }
+    return out.toString();
+  }
+
+  private static List<?> coerceList(Object v) {
+    if (v == null) return List.of();
+    if (v instanceof Object[]) return List.of((Object[]) v);
+    if (v instanceof List) return (List<?>) v;
+    String s = String.valueOf(v).trim();
+    if (s.isEmpty() || "[]".equals(s)) return List.of();
+    try {
+      return MAPPER.readValue(s, new TypeReference<List<Object>>() {});
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Params must be a list or JSON array. Got: " + s, e);
+    }
+  }
+
+  private static Map<String, Object> coerceMap(Object v) {
+    if (v == null) return Map.of();
+    if (v instanceof Map) {
+      Map<String, Object> out = new LinkedHashMap<>();
+      ((Map<?, ?>) v).forEach((k, x) -> out.put(String.valueOf(k), x));
+      return out;
+    }
+    String s = String.valueOf(v).trim();
+    if (s.isEmpty() || "{}".equals(s)) return Map.of();
+    try {
+      return MAPPER.readValue(s, new TypeReference<Map<String, Object>>() {});
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Options must be a dict or JSON object. Got: " + s, e);
+    }
+  }
+
+  private static String stripSemicolon(String sql) {
+    String s = sql.trim();
+    while (s.endsWith(";")) s = s.substring(0, s.length() - 1).trim();
+    return s;
+  }
+
+  /** Open result set plus the connection it pins; closed when exhausted, on Close Cursor or with its pool. */
+  private static final class Cursor {
+    final String pool;
+    final Connection conn;
+    final ResultSet rs;
+    final int pageSize;
+    final String[] labels;
+
+    Cursor(String pool, Connection conn, ResultSet rs, int pageSize) throws SQLException {
+      this.pool = pool;
+      this.conn = conn;
+      this.rs = rs;
+      this.pageSize = pageSize;
+      ResultSetMetaData md = rs.getMetaData();
+      this.labels = new String[md.getColumnCount()];
+      for (int i = 0; i < labels.length; i++) labels[i] = md.getColumnLabel(i + 1);
+    }
+
+    synchronized void close() {
+      try { conn.close(); } catch (SQLException ignored) { /* connection is discarded either way */ }
+    }
+  }
+
+  private void poolGauge(String metric, String help, ToIntFunction<HikariPoolMXBean> stat) {
+    KeywordMetrics.gauge(metric, help, "pool", () -> {
+      Map<String, Integer> out = new TreeMap<>();
+      pools.forEach((name, ds) -> {
+        HikariPoolMXBean mx = ds.getHikariPoolMXBean();
+        if (mx != null) out.put(name, stat.applyAsInt(mx));
+      });
+      return out;
+    });
+  }
 }
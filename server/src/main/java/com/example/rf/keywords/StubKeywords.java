@@ -0,0 +1,255 @@
+package com.example.rf.keywords;
+
+import com.example.rf.keywords.core.KeywordMetrics;
+import com.example.rf.keywords.core.StubServer;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.robotframework.javalib.annotation.ArgumentNames;
+import org.robotframework.javalib.annotation.RobotKeyword;
+import org.robotframework.javalib.annotation.RobotKeywords;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process HTTP stub servers so REST suites and load tests run offline. Stubs are named and
+ * shared by every caller of the keyword server; pabot workers that need their own responses
+ * start their own name. Point a session at the returned base URL instead of the real service.
+ */
+@RobotKeywords
+public class StubKeywords {
+  public static final String ROBOT_LIBRARY_SCOPE = "GLOBAL";
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final Map<String, StubServer> servers = new ConcurrentHashMap<>();
+
+  public StubKeywords() {
+    KeywordMetrics.gauge("rf_stub_requests", "Requests served per stub server.", "server", () -> {
+      Map<String, Long> out = new TreeMap<>();
+      servers.forEach((name, s) -> out.put(name, s.requests()));
+      return out;
+    });
+  }
+
+  @RobotKeyword("Start a stub server and return its base URL. port=0 picks a free port; threads=0 uses 2 per core. "
+      + "Starting a name again replaces the running server.")
+  @ArgumentNames({"name=default", "port=0", "threads=0", "host=127.0.0.1"})
+  public synchronized String startStubServer(String name, int port, int threads, String host) throws Exception {
+    stopStubServer(name);
+    StubServer s = new StubServer(name, host, port, threads);
+    s.start();
+    servers.put(name, s);
+    return s.baseUrl();
+  }
+
+  @RobotKeyword("Start Stub Server on a free 127.0.0.1 port with 2 threads per core; returns its base URL.")
+  @ArgumentNames({"name"})
+  public String startStubServer(String name) throws Exception {
+    return startStubServer(name, 0, 0, "127.0.0.1");
+  }
+
+  @RobotKeyword("Start Stub Server on a 127.0.0.1 port with the given worker threads; returns its base URL.")
+  @ArgumentNames({"name", "port", "threads"})
+  public String startStubServer(String name, int port, int threads) throws Exception {
+    return startStubServer(name, port, threads, "127.0.0.1");
+  }
+
+  @RobotKeyword("Start Stub Server on a 127.0.0.1 port with 2 threads per core; returns its base URL.")
+  @ArgumentNames({"name", "port"})
+  public String startStubServer(String name, int port) throws Exception {
+    return startStubServer(name, port, 0, "127.0.0.1");
+  }
+
+  @RobotKeyword("Start the default stub server on a free 127.0.0.1 port; returns its base URL.")
+  public String startStubServer() throws Exception {
+    return startStubServer("default", 0, 0, "127.0.0.1");
+  }
+
+  @RobotKeyword("Base URL of a running stub server.")
+  @ArgumentNames({"name=default"})
+  public String stubServerUrl(String name) {
+    return running(name).baseUrl();
+  }
+
+  @RobotKeyword("Base URL of the default stub server.")
+  public String stubServerUrl() {
+    return stubServerUrl("default");
+  }
+
+  @RobotKeyword("Stop a stub server (no-op if it is not running).")
+  @ArgumentNames({"name=default"})
+  public synchronized void stopStubServer(String name) {
+    StubServer s = servers.remove(name);
+    if (s != null) s.close();
+  }
+
+  @RobotKeyword("Stop the default stub server.")
+  public void stopStubServer() {
+    stopStubServer("default");
+  }
+
+  @RobotKeyword("Stop every stub server.")
+  public synchronized void stopAllStubServers() {
+    servers.values().forEach(StubServer::close);
+    servers.clear();
+  }
+
+  @RobotKeyword("Add a canned response; returns its id. method * matches any. path is exact, /prefix/* or regex:... "
+      + "query (dict, JSON or a=1&b=2) lists parameters the request must carry. requestBody is text the body must "
+      + "contain, regex:... or exact:.... The newest matching stub wins; exact paths win over patterns.")
+  @ArgumentNames({"name", "method", "path", "status=200", "body=", "headers={}", "query=", "requestBody=", "latencyMs=0"})
+  public long addStub(String name, String method, String path, int status, String body, Object headers,
+                      Object query, String requestBody, long latencyMs) {
+    return running(name).add(method, path, coerceQuery(query), requestBody, status, coerceHeaders(headers, body),
+        body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8), latencyMs).id();
+  }
+
+  @RobotKeyword("Add Stub with response headers, matching any query and body, without added latency.")
+  @ArgumentNames({"name", "method", "path", "status", "body", "headers"})
+  public long addStub(String name, String method, String path, int status, String body, Object headers) {
+    return addStub(name, method, path, status, body, headers, "", "", 0);
+  }
+
+  @RobotKeyword("Add Stub matching any query and body, without added latency.")
+  @ArgumentNames({"name", "method", "path", "status", "body"})
+  public long addStub(String name, String method, String path, int status, String body) {
+    return addStub(name, method, path, status, body, "", "", "", 0);
+  }
+
+  @RobotKeyword("Remove every stub of a server; echo, latency and recording settings are kept.")
+  @ArgumentNames({"name=default"})
+  public void clearStubs(String name) {
+    running(name).clear();
+  }
+
+  @RobotKeyword("Remove every stub of the default server.")
+  public void clearStubs() {
+    clearStubs("default");
+  }
+
+  @RobotKeyword("Answer unmatched requests like postman-echo: args, data, form, headers, json and url, "
+      + "plus /status/{code} and /delay/{seconds}.")
+  @ArgumentNames({"name=default", "enabled=true"})
+  public void setStubEcho(String name, boolean enabled) {
+    running(name).echo(enabled);
+  }
+
+  @RobotKeyword("Turn echo mode on for a stub server.")
+  @ArgumentNames({"name"})
+  public void setStubEcho(String name) {
+    setStubEcho(name, true);
+  }
+
+  @RobotKeyword("Turn echo mode on for the default stub server.")
+  public void setStubEcho() {
+    setStubEcho("default", true);
+  }
+
+  @RobotKeyword("Delay every response by latencyMs plus a random 0..jitterMs, on top of each stub's own latency.")
+  @ArgumentNames({"name", "latencyMs", "jitterMs=0"})
+  public void setStubLatency(String name, long latencyMs, long jitterMs) {
+    running(name).latency(latencyMs, jitterMs);
+  }
+
+  @RobotKeyword("Delay every response by latencyMs, without jitter.")
+  @ArgumentNames({"name", "latencyMs"})
+  public void setStubLatency(String name, long latencyMs) {
+    setStubLatency(name, latencyMs, 0);
+  }
+
+  @RobotKeyword("Proxy unmatched requests to targetUrl and save each exchange as a JSON file in dir.")
+  @ArgumentNames({"name", "targetUrl", "dir"})
+  public void startStubRecording(String name, String targetUrl, String dir) {
+    running(name).startRecording(targetUrl, Path.of(dir));
+  }
+
+  @RobotKeyword("Stop recording; returns the number of exchanges written.")
+  @ArgumentNames({"name=default"})
+  public int stopStubRecording(String name) {
+    return running(name).stopRecording();
+  }
+
+  @RobotKeyword("Stop recording on the default stub server; returns the number of exchanges written.")
+  public int stopStubRecording() {
+    return stopStubRecording("default");
+  }
+
+  @RobotKeyword("Replay recordings from dir as stubs matched on method, path, query and exact body; returns the count. "
+      + "withLatency=true replays each response after its recorded duration.")
+  @ArgumentNames({"name", "dir", "withLatency=false"})
+  public int loadStubRecordings(String name, String dir, boolean withLatency) {
+    return running(name).load(Path.of(dir), withLatency);
+  }
+
+  @RobotKeyword("Load Stub Recordings and answer without the recorded durations.")
+  @ArgumentNames({"name", "dir"})
+  public int loadStubRecordings(String name, String dir) {
+    return loadStubRecordings(name, dir, false);
+  }
+
+  @RobotKeyword("Stub server counters (requests, matched, echoed, recorded, unmatched, errors) and hits per stub.")
+  @ArgumentNames({"name=default"})
+  public Map<String, Object> stubServerStats(String name) {
+    return running(name).stats();
+  }
+
+  @RobotKeyword("Counters of the default stub server.")
+  public Map<String, Object> stubServerStats() {
+    return stubServerStats("default");
+  }
+
+  private StubServer running(String name) {
+    StubServer s = servers.get(name);
+    if (s == null) throw new IllegalStateException("Stub server " + name + " is not running; call Start Stub Server first");
+    return s;
+  }
+
+  /** Defaults Content-Type to JSON when the body looks like JSON. */
+  private static Map<String, String> coerceHeaders(Object headers, String body) {
+    Map<String, String> out = new LinkedHashMap<>();
+    coerceMap(headers, "Headers").forEach((k, v) -> out.put(k, v == null ? "" : String.valueOf(v)));
+    boolean typed = out.keySet().stream().anyMatch("Content-Type"::equalsIgnoreCase);
+    String b = body == null ? "" : body.trim();
+    if (!typed && (b.startsWith("{") || b.startsWith("["))) out.put("Content-Type", "application/json");
+    return out;
+  }
+
+  private static Map<String, List<String>> coerceQuery(Object query) {
+    if (query == null) return Map.of();
+    if (!(query instanceof Map)) {
+      String s = String.valueOf(query).trim();
+      if (s.isEmpty() || "{}".equals(s)) return Map.of();
+      if (!s.startsWith("{")) return StubServer.parseQuery(s.startsWith("?") ? s.substring(1) : s);
+    }
+    Map<String, List<String>> out = new LinkedHashMap<>();
+    coerceMap(query, "Query").forEach((k, v) -> {
+      List<String> values = new ArrayList<>();
+      if (v instanceof List) ((List<?>) v).forEach(x -> values.add(String.valueOf(x)));
+      else values.add(String.valueOf(v));
+      out.put(k, values);
+    });
+    return out;
+  }
+
+  private static Map<String, Object> coerceMap(Object v, String what) {
+    if (v == null) return Map.of();
+    if (v instanceof Map) {
+      Map<String, Object> out = new LinkedHashMap<>();
+      ((Map<?, ?>) v).forEach((k, x) -> out.put(String.valueOf(k), x));
+      return out;
+    }
+    String s = String.valueOf(v).trim();
+    if (s.isEmpty() || "{}".equals(s)) return Map.of();
+    try {
+      return MAPPER.readValue(s, new TypeReference<Map<String, Object>>() {});
+    } catch (Exception e) {
+      throw new IllegalArgumentException(what + " must be a dict or JSON object. Got: " + s, e);
+    }
+  }
+}
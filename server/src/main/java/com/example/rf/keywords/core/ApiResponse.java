@@ -0,0 +1,230 @@
+package com.example.rf.keywords.core;
+
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Engine-neutral response kept under an alias. Mirrors the parts of RestAssured's
+ * {@link Response} the REST keywords use, so either HTTP engine can back an alias.
+ */
+public final class ApiResponse {
+  private final int status;
+  private final long timeMs;
+  private final String contentType;
+  private volatile byte[] bytes;
+  private volatile String text;
+  private volatile io.restassured.path.json.JsonPath json;
+  private volatile Object jsonRoot;
+  /** Body moved off-heap by {@link #spill}; once set, nothing is cached on the heap again. */
+  private volatile MappedByteBuffer spilled;
+  /** Told whenever a decoded or parsed copy is cached, so the store can re-weigh this response. */
+  private volatile Runnable onCache;
+  /** Set for bodies streamed straight to disk; read through a mapping on demand. */
+  private final Path file;
+  private final long fileSize;
+  private final String fileSha256;
+
+  private ApiResponse(int status, long timeMs, String contentType, byte[] bytes, String text) {
+    this(status, timeMs, contentType, bytes, text, null, -1, null);
+  }
+
+  private ApiResponse(int status, long timeMs, String contentType, byte[] bytes, String text,
+                      Path file, long fileSize, String fileSha256) {
+    this.status = status;
+    this.timeMs = timeMs;
+    this.contentType = contentType == null ? "" : contentType;
+    this.bytes = bytes;
+    this.text = text;
+    this.file = file;
+    this.fileSize = fileSize;
+    this.fileSha256 = fileSha256;
+  }
+
+  /** Keeps the raw bytes so digests, sizes and saved files match the wire; text is decoded on first use. */
+  public static ApiResponse of(Response r) {
+    return new ApiResponse(r.statusCode(), r.time(), r.contentType(), r.asByteArray(), null);
+  }
+
+  public static ApiResponse of(HttpResponse<byte[]> r, long timeMs) {
+    return new ApiResponse(r.statusCode(), timeMs, r.headers().firstValue("Content-Type").orElse(""), r.body(), null);
+  }
+
+  /** Body already on disk, with the size and SHA-256 computed while it was written. */
+  public static ApiResponse ofFile(int status, long timeMs, String contentType, Path file, long size, String sha256) {
+    return new ApiResponse(status, timeMs, contentType, null, null, file, size, sha256);
+  }
+
+  public int statusCode() { return status; }
+
+  public long time() { return timeMs; }
+
+  public String contentType() { return contentType; }
+
+  public String asString() {
+    String t = text;
+    if (t != null) return t;
+    byte[] b = bytes;
+    if (b != null) {
+      t = new String(b, charset(contentType));
+      if (onHeap()) { text = t; cached(); }
+      return t;
+    }
+    return charset(contentType).decode(offHeap()).toString();
+  }
+
+  public byte[] asByteArray() {
+    byte[] b = bytes;
+    if (b != null) return b;
+    String t = text;
+    if (t != null) {
+      b = t.getBytes(charset(contentType));
+      if (onHeap()) { bytes = b; cached(); }
+      return b;
+    }
+    ByteBuffer m = offHeap();
+    b = new byte[m.remaining()];
+    m.get(b);
+    return b;
+  }
+
+  /** Body parsed once for GPath lookups; reused by every JsonPath keyword on this alias. */
+  public io.restassured.path.json.JsonPath json() {
+    io.restassured.path.json.JsonPath j = json;
+    if (j != null) return j;
+    j = io.restassured.path.json.JsonPath.from(asString());
+    if (onHeap()) { json = j; cached(); }
+    return j;
+  }
+
+  /** Root of the parsed tree, with RestAssured's number types (see {@link JsonDocs#gpath}). */
+  Object jsonRoot() {
+    Object r = jsonRoot;
+    if (r != null) return r;
+    r = json().get();
+    if (onHeap()) jsonRoot = r;
+    return r;
+  }
+
+  /** Body length in bytes; free for downloaded and spilled bodies. */
+  public long size() {
+    if (fileSize >= 0) return fileSize;
+    MappedByteBuffer m = spilled;
+    return m != null ? m.capacity() : asByteArray().length;
+  }
+
+  /** Lower-case hex SHA-256 of the body, hashed straight from the mapping when off-heap. */
+  public String sha256() {
+    if (fileSha256 != null) return fileSha256;
+    MessageDigest md = sha256Digest();
+    byte[] b = bytes;
+    if (b == null && !onHeap()) md.update(offHeap());
+    else md.update(b != null ? b : asByteArray());
+    return HexFormat.of().formatHex(md.digest());
+  }
+
+  /** Write the body to a file without decoding it to text. */
+  public void writeTo(Path target) {
+    if (file != null) {
+      if (file.toAbsolutePath().normalize().equals(target.toAbsolutePath().normalize())) return;
+      FileUtils.copy(file, target);
+      return;
+    }
+    byte[] b = bytes;
+    FileUtils.write(target, b == null && !onHeap() ? offHeap() : ByteBuffer.wrap(b != null ? b : asByteArray()));
+  }
+
+  public static MessageDigest sha256Digest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Approximate heap held by this response: raw and decoded body, parsed tree counted as twice the text. */
+  long heapBytes() {
+    if (!onHeap()) return 0;
+    byte[] b = bytes;
+    String t = text;
+    long n = (b == null ? 0 : b.length) + (t == null ? 0 : 2L * t.length());
+    if (json != null) n += 2L * (t == null ? (b == null ? 0 : b.length) : t.length());
+    return n;
+  }
+
+  void onCache(Runnable listener) { onCache = listener; }
+
+  private void cached() {
+    Runnable r = onCache;
+    if (r != null) r.run();
+  }
+
+  long spilledBytes() {
+    MappedByteBuffer m = spilled;
+    return m == null ? 0 : m.capacity();
+  }
+
+  /**
+   * Move the body to a memory-mapped temp file and drop every heap copy. Later reads decode
+   * from the mapping on each call. The file is opened delete-on-close: POSIX systems unlink it
+   * when the channel closes, and Windows removes it once the mapping is released or the
+   * process exits, so no spill file outlives the server.
+   */
+  synchronized void spill(Path dir) throws IOException {
+    if (!onHeap()) return;
+    byte[] b = asByteArray();
+    Path f = Files.createTempFile(dir, "rf-body-", ".bin");
+    try (FileChannel ch = FileChannel.open(f, StandardOpenOption.READ, StandardOpenOption.WRITE,
+        StandardOpenOption.DELETE_ON_CLOSE)) {
+      ByteBuffer src = ByteBuffer.wrap(b);
+      while (src.hasRemaining()) ch.write(src);
+      spilled = ch.map(FileChannel.MapMode.READ_ONLY, 0, b.length);
+    } catch (IOException | RuntimeException e) {
+      try { Files.deleteIfExists(f); } catch (IOException x) { e.addSuppressed(x); }
+      throw e;
+    }
+    bytes = null;
+    text = null;
+    json = null;
+    jsonRoot = null;
+  }
+
+  private boolean onHeap() { return spilled == null && file == null; }
+
+  /** Read-only view of an off-heap body; downloaded files are mapped on first use. */
+  private ByteBuffer offHeap() {
+    MappedByteBuffer m = spilled;
+    if (m == null) {
+      synchronized (this) {
+        if ((m = spilled) == null) {
+          try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            spilled = m = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+          } catch (IOException e) {
+            throw new RuntimeException("Cannot read body from " + file + ": " + e.getMessage(), e);
+          }
+        }
+      }
+    }
+    return m.duplicate();
+  }
+
+  private static Charset charset(String contentType) {
+    int i = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+    if (i < 0) return StandardCharsets.UTF_8;
+    String cs = contentType.substring(i + 8).split("[;,\\s]")[0].replace("\"", "");
+    try { return Charset.forName(cs); } catch (RuntimeException e) { return StandardCharsets.UTF_8; }
+  }
+}
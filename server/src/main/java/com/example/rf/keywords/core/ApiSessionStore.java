@@ -3,25 +3,120 @@ package com.example.rf.keywords.core;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.specification.RequestSpecification;
 
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Sessions are kept per {@link CallerContext} namespace so parallel workers can reuse names
+ * like {@code echo}; sessions created without a namespace are visible to every caller until a
+ * namespace changes one, which gives that namespace its own copy.
+ */
 public final class ApiSessionStore {
-  private static final Map<String, RequestSpecification> SESSIONS = new ConcurrentHashMap<>();
+  private static final Namespaced<Map<String, Session>> SESSIONS =
+      new Namespaced<>(ConcurrentHashMap::new);
   private ApiSessionStore() {}
 
+  /** HTTP engine behind a session: RestAssured (default) or the pooled java.net.http client. */
+  public enum Engine {
+    RESTASSURED, HTTPCLIENT;
+
+    public static Engine parse(String s) {
+      if (s == null || s.isBlank()) return RESTASSURED;
+      String v = s.trim().toUpperCase(Locale.ROOT).replace("-", "").replace("_", "");
+      if ("HTTP".equals(v) || "JDK".equals(v) || "FAST".equals(v)) return HTTPCLIENT;
+      try { return valueOf(v); }
+      catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("engine must be restassured or httpclient. Got: " + s);
+      }
+    }
+  }
+
+  public static final class Session {
+    private final String baseUrl;
+    private final Engine engine;
+    private final RequestSpecification spec;
+    private final Map<String, String> headers;
+    private volatile String[] headerPairs;
+
+    private Session(String baseUrl, Engine engine, Map<String, String> headers) {
+      this.baseUrl = baseUrl;
+      this.engine = engine;
+      this.headers = new LinkedHashMap<>(headers == null ? Map.of() : headers);
+      RequestSpecBuilder b = new RequestSpecBuilder().setBaseUri(baseUrl);
+      if (!this.headers.isEmpty()) {
+        b.addHeaders(this.headers); // accepts a Map<String, ?>
+      }
+      this.spec = b.build();
+      this.headerPairs = pairs(this.headers);
+    }
+
+    public String baseUrl() { return baseUrl; }
+
+    public Engine engine() { return engine; }
+
+    public RequestSpecification spec() { return spec; }
+
+    /** Default headers as name/value pairs, ready for {@code HttpRequest.Builder.headers}. */
+    public String[] headerPairs() { return headerPairs; }
+
+    /** Set a default header on both engines' views of the session. */
+    public synchronized void header(String name, String value) {
+      spec.header(name, value);
+      headers.put(name, value);
+      headerPairs = pairs(headers);
+    }
+
+    /** Same base URL, engine and default headers, for a namespace's own copy. */
+    private synchronized Session copy() { return new Session(baseUrl, engine, headers); }
+
+    private static String[] pairs(Map<String, String> h) {
+      String[] out = new String[h.size() * 2];
+      int i = 0;
+      for (var e : h.entrySet()) {
+        out[i++] = e.getKey();
+        out[i++] = e.getValue() == null ? "" : e.getValue();
+      }
+      return out;
+    }
+  }
+
   public static void put(String name, String baseUrl, Map<String, String> headers) {
-    RequestSpecBuilder b = new RequestSpecBuilder().setBaseUri(baseUrl);
-    if (headers != null && !headers.isEmpty()) {
-      b.addHeaders(headers); // accepts a Map<String, ?>
+    put(name, baseUrl, headers, Engine.RESTASSURED);
+  }
+
+  public static void put(String name, String baseUrl, Map<String, String> headers, Engine engine) {
+    SESSIONS.current().put(name, new Session(baseUrl, engine, headers));
+  }
+
+  public static Session session(String name) {
+    Session s = SESSIONS.current().get(name);
+    if (s == null) {
+      Map<String, Session> shared = SESSIONS.shared();
+      if (shared != null) s = shared.get(name);
     }
-    RequestSpecification spec = b.build();
-    SESSIONS.put(name, spec);
+    if (s == null) throw new IllegalStateException("No API session named: " + name);
+    return s;
   }
 
-  public static RequestSpecification get(String name) {
-    RequestSpecification spec = SESSIONS.get(name);
-    if (spec == null) throw new IllegalStateException("No API session named: " + name);
-    return spec;
+  public static RequestSpecification get(String name) { return session(name).spec(); }
+
+  /**
+   * Set a default header for the calling namespace. A shared session is copied into the
+   * namespace first, so one worker's token never reaches another worker's requests.
+   */
+  public static void header(String name, String header, String value) {
+    Map<String, Session> own = SESSIONS.current();
+    Session s = own.get(name);
+    if (s == null) {
+      Session copy = session(name).copy();
+      Session prev = own.putIfAbsent(name, copy);
+      s = prev == null ? copy : prev;
+    }
+    s.header(header, value);
   }
+
+  /** Forget every session of the calling namespace. */
+  public static void clearNamespace() { SESSIONS.remove(); }
 }
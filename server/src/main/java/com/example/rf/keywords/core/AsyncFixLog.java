@@ -0,0 +1,145 @@
+package com.example.rf.keywords.core;
+
+import quickfix.Log;
+import quickfix.LogFactory;
+import quickfix.SessionID;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * QuickFIX/J log that only enqueues on the session thread. One daemon thread drains the queue
+ * in batches and writes them to stdout or a file with one flush per batch. When the queue is
+ * full, lines are dropped and counted instead of blocking the session. Incoming, outgoing and
+ * event lines can be switched off individually; error events are always kept. If the target
+ * cannot be written, the writer stops and the remaining lines are counted as dropped.
+ */
+public final class AsyncFixLog implements LogFactory, Closeable {
+  private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm:ss.SSS").withZone(ZoneOffset.UTC);
+  private static final int BATCH = 4096;
+
+  private final boolean incoming, outgoing, events;
+  private final BlockingQueue<Line> queue;
+  private final Writer out;
+  private final boolean ownsOut;
+  private final Thread writer;
+  private final LongAdder written = new LongAdder(), dropped = new LongAdder();
+  private volatile boolean closed;
+
+  private static final class Line {
+    final long millis;
+    final String session, kind, text;
+
+    Line(long millis, String session, String kind, String text) {
+      this.millis = millis;
+      this.session = session;
+      this.kind = kind;
+      this.text = text;
+    }
+  }
+
+  /** @param file target file (appended to), or null for stdout */
+  public AsyncFixLog(boolean incoming, boolean outgoing, boolean events, Path file, int capacity) throws IOException {
+    this.incoming = incoming;
+    this.outgoing = outgoing;
+    this.events = events;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.ownsOut = file != null;
+    if (file == null) {
+      // the process stdout, not System.out: the remote server swaps that for a per-call buffer
+      out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.ISO_8859_1), 1 << 16);
+    } else {
+      if (file.getParent() != null) Files.createDirectories(file.getParent());
+      out = Files.newBufferedWriter(file, StandardCharsets.ISO_8859_1, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+    writer = new Thread(this::drain, "rf-fix-log");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  @Override public Log create(SessionID sid) {
+    String session = sid.toString();
+    return new Log() {
+      @Override public void clear() { /* append-only */ }
+      @Override public void onIncoming(String m) { if (incoming) offer(session, "incoming", m); }
+      @Override public void onOutgoing(String m) { if (outgoing) offer(session, "outgoing", m); }
+      @Override public void onEvent(String m) { if (events) offer(session, "event", m); }
+      @Override public void onErrorEvent(String m) { offer(session, "error", m); }
+    };
+  }
+
+  public Map<String, Long> stats() {
+    return Map.of("queued", (long) queue.size(), "written", written.sum(), "dropped", dropped.sum());
+  }
+
+  /** Writes what is queued, then stops the writer thread. */
+  @Override public void close() {
+    closed = true;
+    try {
+      writer.join(5_000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void offer(String session, String kind, String text) {
+    if (closed || !queue.offer(new Line(System.currentTimeMillis(), session, kind, text))) dropped.increment();
+  }
+
+  private void drain() {
+    List<Line> batch = new ArrayList<>(BATCH);
+    try {
+      while (!closed || !queue.isEmpty()) {
+        Line first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) continue;
+        batch.add(first);
+        queue.drainTo(batch, BATCH - 1);
+        for (Line l : batch) {
+          out.write(TIME.format(Instant.ofEpochMilli(l.millis)));
+          out.write(' ');
+          out.write(l.session);
+          out.write(' ');
+          out.write(l.kind);
+          out.write(": ");
+          out.write(l.text);
+          out.write('\n');
+        }
+        out.flush();
+        written.add(batch.size());
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      // the writer is gone; this batch and every later line show up as dropped
+      closed = true;
+      dropped.add(batch.size() + queue.size());
+      queue.clear();
+    } finally {
+      try {
+        if (ownsOut) out.close(); else out.flush();
+      } catch (IOException ignored) {
+        // nothing left to report to
+      }
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.example.rf.keywords.core;
+
+/**
+ * Namespace of the client behind the current keyword call, e.g. a pabot worker id.
+ * Set per request by the server from {@code ?ns=<id>} on the library URL or the
+ * {@code X-RF-Namespace} header; empty when the client sent none.
+ */
+public final class CallerContext {
+  private static final ThreadLocal<String> NS = ThreadLocal.withInitial(() -> "");
+  private CallerContext() {}
+
+  public static String namespace() { return NS.get(); }
+
+  public static void set(String ns) { NS.set(ns == null ? "" : ns); }
+
+  public static void clear() { NS.remove(); }
+}
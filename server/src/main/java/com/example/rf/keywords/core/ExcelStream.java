@@ -0,0 +1,104 @@
+package com.example.rf.keywords.core;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only XLSX access through POI's SAX event API: rows are handed over one at a time and
+ * only the shared-strings table is held in memory, so 100k-row sheets open in constant heap.
+ * Values are the cell text as Excel displays it (cached results for formulas).
+ */
+public final class ExcelStream {
+  private ExcelStream() {}
+
+  /**
+   * Receives each non-empty row; cells are indexed by 0-based column, gaps are null. The list
+   * is reused for the next row, so copy what you keep.
+   */
+  public interface RowSink {
+    /** Return false to stop reading the sheet. */
+    boolean row(int rowIndex, List<String> cells);
+  }
+
+  public static void read(Path file, String sheet, RowSink sink) {
+    try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+      XSSFReader reader = new XSSFReader(pkg);
+      ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+      StylesTable styles = reader.getStylesTable();
+      XSSFReader.SheetIterator it = (XSSFReader.SheetIterator) reader.getSheetsData();
+      List<String> names = new ArrayList<>();
+      while (it.hasNext()) {
+        try (InputStream in = it.next()) {
+          names.add(it.getSheetName());
+          if (!it.getSheetName().equals(sheet)) continue;
+          XMLReader xml = XMLHelper.newXMLReader();
+          xml.setContentHandler(new XSSFSheetXMLHandler(styles, strings, new Rows(sink), new DataFormatter(), false));
+          try {
+            xml.parse(new InputSource(in));
+          } catch (Stop done) {
+            // sink asked to stop
+          }
+          return;
+        }
+      }
+      throw new IllegalArgumentException("No sheet: " + sheet + " in " + file + "; sheets are " + names);
+    } catch (IllegalArgumentException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new RuntimeException("Cannot stream " + file + ": " + e.getMessage(), e);
+    }
+  }
+
+  private static final class Stop extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    Stop() { super(null, null, false, false); }
+  }
+
+  /** Column of an A1 reference; cheaper than CellReference, which this runs for every cell. */
+  private static int column(String ref) {
+    int c = 0;
+    for (int i = 0; i < ref.length(); i++) {
+      char ch = ref.charAt(i);
+      if (ch < 'A' || ch > 'Z') break;
+      c = c * 26 + (ch - 'A' + 1);
+    }
+    return c - 1;
+  }
+
+  private static final class Rows implements XSSFSheetXMLHandler.SheetContentsHandler {
+    private final RowSink sink;
+    private final List<String> cells = new ArrayList<>();
+    private int col;
+
+    Rows(RowSink sink) { this.sink = sink; }
+
+    @Override public void startRow(int rowNum) {
+      cells.clear();
+      col = -1;
+    }
+
+    @Override public void endRow(int rowNum) {
+      if (!cells.isEmpty() && !sink.row(rowNum, cells)) throw new Stop();
+    }
+
+    @Override public void cell(String ref, String value, XSSFComment comment) {
+      col = ref == null ? col + 1 : column(ref);
+      while (cells.size() < col) cells.add(null);
+      cells.add(value);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.example.rf.keywords.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A sheet loaded once into columns of strings, with hash indexes on key columns built on first
+ * use. Repeated cell values share one String instance, so wide data-driven sheets stay
+ * compact, and lookups by key are a single hash probe instead of a scan over rows.
+ */
+public final class ExcelTable {
+  private final String[] header;
+  private final Map<String, Integer> columnIndex = new HashMap<>();
+  private final String[][] columns;
+  private final int rows;
+  private final String defaultKey;
+  private final Map<String, Map<String, Integer>> indexes = new ConcurrentHashMap<>();
+
+  private ExcelTable(String[] header, String[][] columns, int rows, String defaultKey) {
+    this.header = header;
+    this.columns = columns;
+    this.rows = rows;
+    for (int i = 0; i < header.length; i++) columnIndex.putIfAbsent(header[i], i);
+    this.defaultKey = defaultKey == null || defaultKey.isEmpty() ? header[0] : defaultKey;
+    column(this.defaultKey);
+  }
+
+  /** Collects rows (first one is the header) and builds the columns at the end. */
+  public static final class Builder {
+    private final List<String[]> data = new ArrayList<>();
+    private final Map<String, String> interned = new HashMap<>();
+    private String[] header;
+
+    public void row(List<String> cells) {
+      if (header == null) {
+        header = new String[cells.size()];
+        for (int i = 0; i < header.length; i++) {
+          String h = cells.get(i);
+          header[i] = h == null || h.isBlank() ? "col" + (i + 1) : h.trim();
+        }
+        return;
+      }
+      String[] r = new String[header.length];
+      for (int i = 0; i < r.length; i++) {
+        String v = i < cells.size() ? cells.get(i) : null;
+        r[i] = v == null ? "" : interned.computeIfAbsent(v, x -> x);
+      }
+      data.add(r);
+    }
+
+    public ExcelTable build(String defaultKey) {
+      if (header == null) throw new IllegalArgumentException("Sheet has no header row");
+      String[][] cols = new String[header.length][data.size()];
+      for (int r = 0; r < data.size(); r++) {
+        String[] row = data.get(r);
+        for (int c = 0; c < header.length; c++) cols[c][r] = row[c];
+      }
+      return new ExcelTable(header, cols, data.size(), defaultKey);
+    }
+  }
+
+  public int rows() { return rows; }
+
+  public String defaultKey() { return defaultKey; }
+
+  /** Row whose key column equals key (first match), or null. */
+  public Map<String, String> lookup(String keyColumn, String key) {
+    Integer r = index(keyColumn).get(key);
+    return r == null ? null : row(r);
+  }
+
+  /** Number of rows sharing a key with an earlier row; lookups return the first of them. */
+  public int duplicates(String keyColumn) {
+    return rows - index(keyColumn).size();
+  }
+
+  public Map<String, String> row(int r) {
+    Map<String, String> out = new LinkedHashMap<>();
+    for (int c = 0; c < header.length; c++) out.put(header[c], columns[c][r]);
+    return out;
+  }
+
+  private Map<String, Integer> index(String keyColumn) {
+    return indexes.computeIfAbsent(keyColumn, k -> {
+      String[] col = columns[column(k)];
+      Map<String, Integer> idx = new HashMap<>(col.length * 4 / 3 + 1);
+      for (int r = 0; r < col.length; r++) idx.putIfAbsent(col[r], r);
+      return idx;
+    });
+  }
+
+  private int column(String name) {
+    Integer i = columnIndex.get(name);
+    if (i == null) throw new IllegalArgumentException("No column " + name + "; columns are " + List.of(header));
+    return i;
+  }
+}
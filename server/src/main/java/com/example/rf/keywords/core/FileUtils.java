@@ -1,8 +1,12 @@
 package com.example.rf.keywords.core;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 public final class FileUtils {
   private FileUtils(){}
@@ -19,4 +23,22 @@ public final class FileUtils {
       Files.writeString(p, content);
     } catch (IOException e) { throw new RuntimeException(e); }
   }
+
+  /** Write a buffer (heap or mapped) through a file channel, replacing the file. */
+  public static void write(Path p, ByteBuffer content) {
+    try {
+      if (p.getParent()!=null) Files.createDirectories(p.getParent());
+      try (FileChannel ch = FileChannel.open(p, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING)) {
+        while (content.hasRemaining()) ch.write(content);
+      }
+    } catch (IOException e) { throw new RuntimeException(e); }
+  }
+
+  public static void copy(Path from, Path to) {
+    try {
+      if (to.getParent()!=null) Files.createDirectories(to.getParent());
+      Files.copy(from, to, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) { throw new RuntimeException(e); }
+  }
 }
@@ -0,0 +1,264 @@
+package com.example.rf.keywords.core;
+
+import quickfix.FieldNotFound;
+import quickfix.Message;
+import quickfix.field.ClOrdID;
+import quickfix.field.ExecType;
+import quickfix.field.MsgType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Received application messages indexed by every combination of MsgType (35), ClOrdID (11)
+ * and ExecType (150). A waiter asks for one combination, e.g. ClOrdID=X and ExecType=FILL,
+ * and either takes the oldest matching message or parks a future on that key, which the next
+ * matching arrival completes. Both paths touch only the key's own slot, so nothing is scanned
+ * however deep the inbox gets. Each message is delivered once; taking it removes it from
+ * every other key. Past {@code capacity} the oldest message is dropped and counted.
+ */
+public final class FixInbox {
+  private static final int[] TAGS = {MsgType.FIELD, ClOrdID.FIELD, ExecType.FIELD};
+  /** Subsets of TAGS as bit masks, most specific first, so a waiter on ClOrdID+ExecType beats one on ClOrdID. */
+  private static final int[] MASKS = {7, 3, 5, 6, 1, 2, 4, 0};
+
+  private final int capacity;
+  private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+  private final AtomicInteger depth = new AtomicInteger();
+  private final LongAdder received = new LongAdder(), delivered = new LongAdder();
+  private final LongAdder overflowed = new LongAdder(), timeouts = new LongAdder();
+
+  public FixInbox() {
+    this(Integer.parseInt(EnvUtils.get("rf.fix.inbox.capacity", "100000")));
+  }
+
+  public FixInbox(int capacity) {
+    if (capacity <= 0) throw new IllegalArgumentException("rf.fix.inbox.capacity must be > 0");
+    this.capacity = capacity;
+  }
+
+  private static final class Entry {
+    final Message msg;
+    final String[] keys;
+    final AtomicBoolean taken = new AtomicBoolean();
+
+    Entry(Message msg, String[] keys) { this.msg = msg; this.keys = keys; }
+  }
+
+  /** Unclaimed entries in arrival order plus parked waiters for one key; guarded by itself. */
+  private static final class Slot {
+    final LinkedHashSet<Entry> entries = new LinkedHashSet<>();
+    final ArrayDeque<CompletableFuture<Message>> waiters = new ArrayDeque<>();
+    boolean dead;
+  }
+
+  public void add(Message msg) {
+    received.increment();
+    Entry e = new Entry(msg, keys(msg));
+    depth.incrementAndGet();
+    for (String key : e.keys) {
+      if (e.taken.get()) return; // a waiter on an earlier key already took it
+      if (offer(key, e)) {
+        depth.decrementAndGet();
+        delivered.increment();
+        unlink(e, key);
+        return;
+      }
+    }
+    if (depth.get() > capacity) dropOldest();
+  }
+
+  /**
+   * Takes the oldest message matching all non-empty criteria, waiting up to the timeout.
+   * Returns null on timeout.
+   */
+  public Message await(String msgType, String clOrdId, String execType, long timeoutNanos) throws InterruptedException {
+    String key = key(msgType, clOrdId, execType);
+    CompletableFuture<Message> f = new CompletableFuture<>();
+    Slot slot = park(key, f);
+    if (f.isDone()) return f.join();
+    try {
+      return f.get(timeoutNanos, TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      synchronized (slot) {
+        slot.waiters.remove(f);
+        if (!f.isDone()) f.cancel(false);
+        release(key, slot);
+      }
+      if (f.isCancelled()) {
+        timeouts.increment();
+        return null;
+      }
+      return f.join();
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /** Drops every waiting message; returns how many there were. */
+  public int clear() {
+    Slot all = slots.get("");
+    int n = 0;
+    Entry e;
+    while (all != null && (e = first(all)) != null) {
+      if (claim(e)) n++;
+    }
+    return n;
+  }
+
+  public int depth() { return depth.get(); }
+
+  public Map<String, Long> stats() {
+    Map<String, Long> m = new LinkedHashMap<>();
+    m.put("depth", (long) depth.get());
+    m.put("capacity", (long) capacity);
+    m.put("received", received.sum());
+    m.put("delivered", delivered.sum());
+    m.put("overflowed", overflowed.sum());
+    m.put("timeouts", timeouts.sum());
+    long waiting = 0;
+    for (Slot s : slots.values()) synchronized (s) { waiting += s.waiters.size(); }
+    m.put("waiters", waiting);
+    return m;
+  }
+
+  /** Hands e to the first live waiter on key, or files it under key. True if handed over. */
+  private boolean offer(String key, Entry e) {
+    while (true) {
+      Slot slot = slots.computeIfAbsent(key, k -> new Slot());
+      synchronized (slot) {
+        if (slot.dead) continue;
+        CompletableFuture<Message> w;
+        while ((w = slot.waiters.poll()) != null) {
+          if (w.isDone()) continue;
+          if (!e.taken.compareAndSet(false, true)) { slot.waiters.addFirst(w); return false; }
+          w.complete(e.msg);
+          release(key, slot);
+          return true;
+        }
+        if (!e.taken.get()) slot.entries.add(e);
+        return false;
+      }
+    }
+  }
+
+  /** Completes f with the oldest entry filed under key, or parks it there. */
+  private Slot park(String key, CompletableFuture<Message> f) {
+    while (true) {
+      Slot slot = slots.computeIfAbsent(key, k -> new Slot());
+      Entry got = null;
+      synchronized (slot) {
+        if (slot.dead) continue;
+        for (Iterator<Entry> it = slot.entries.iterator(); it.hasNext(); ) {
+          Entry e = it.next();
+          it.remove();
+          if (e.taken.compareAndSet(false, true)) { got = e; break; }
+        }
+        if (got == null) {
+          slot.waiters.add(f);
+          return slot;
+        }
+        release(key, slot);
+      }
+      depth.decrementAndGet();
+      delivered.increment();
+      unlink(got, key);
+      f.complete(got.msg);
+      return slot;
+    }
+  }
+
+  private void dropOldest() {
+    Slot all = slots.get("");
+    while (depth.get() > capacity && all != null) {
+      Entry e = first(all);
+      if (e == null) return;
+      if (claim(e)) overflowed.increment();
+    }
+  }
+
+  private Entry first(Slot slot) {
+    synchronized (slot) {
+      Iterator<Entry> it = slot.entries.iterator();
+      return it.hasNext() ? it.next() : null;
+    }
+  }
+
+  /** Takes e without delivering it (clear / overflow). */
+  private boolean claim(Entry e) {
+    if (!e.taken.compareAndSet(false, true)) {
+      unlink(e, null);
+      return false;
+    }
+    depth.decrementAndGet();
+    unlink(e, null);
+    return true;
+  }
+
+  /** Removes a taken entry from its other keys so they do not hold on to it. */
+  private void unlink(Entry e, String except) {
+    for (String key : e.keys) {
+      if (key.equals(except)) continue;
+      Slot slot = slots.get(key);
+      if (slot == null) continue;
+      synchronized (slot) {
+        if (slot.entries.remove(e)) release(key, slot);
+      }
+    }
+  }
+
+  /** Forgets an empty slot so per-order keys do not pile up; callers hold the slot's lock. */
+  private void release(String key, Slot slot) {
+    if (slot.entries.isEmpty() && slot.waiters.isEmpty() && !key.isEmpty()) {
+      slot.dead = true;
+      slots.remove(key, slot);
+    }
+  }
+
+  /** Every subset of the message's indexed fields that it actually carries; "" is any message. */
+  private static String[] keys(Message msg) {
+    String[] v = new String[TAGS.length];
+    for (int i = 0; i < TAGS.length; i++) v[i] = field(msg, TAGS[i]);
+    List<String> keys = new ArrayList<>(MASKS.length);
+    for (int mask : MASKS) {
+      if (present(v, mask)) keys.add(key(mask(v, mask, 0), mask(v, mask, 1), mask(v, mask, 2)));
+    }
+    return keys.toArray(new String[0]);
+  }
+
+  private static boolean present(String[] v, int mask) {
+    for (int i = 0; i < v.length; i++) if ((mask & (1 << i)) != 0 && v[i] == null) return false;
+    return true;
+  }
+
+  private static String mask(String[] v, int mask, int i) { return (mask & (1 << i)) != 0 ? v[i] : null; }
+
+  static String key(String msgType, String clOrdId, String execType) {
+    StringBuilder sb = new StringBuilder();
+    if (msgType != null && !msgType.isEmpty()) sb.append("35=").append(msgType);
+    if (clOrdId != null && !clOrdId.isEmpty()) sb.append(sb.length() > 0 ? "|" : "").append("11=").append(clOrdId);
+    if (execType != null && !execType.isEmpty()) sb.append(sb.length() > 0 ? "|" : "").append("150=").append(execType);
+    return sb.toString();
+  }
+
+  private static String field(Message msg, int tag) {
+    try {
+      return tag == MsgType.FIELD ? msg.getHeader().getString(tag) : msg.isSetField(tag) ? msg.getString(tag) : null;
+    } catch (FieldNotFound e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package com.example.rf.keywords.core;
+
+import quickfix.ConfigError;
+import quickfix.FieldConvertError;
+import quickfix.FileStoreFactory;
+import quickfix.MessageStore;
+import quickfix.MessageStoreFactory;
+import quickfix.SessionID;
+import quickfix.SessionSettings;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * QuickFIX/J message store kept in one memory-mapped file per session: sequence numbers and
+ * messages are plain stores into the mapping, so there is no write syscall per message and the
+ * OS flushes dirty pages in the background. That survives a crash of this process, not of the
+ * host. An offset index by sequence number is rebuilt from the file on open. The mapping
+ * doubles when full, up to 1 GiB.
+ *
+ * <p>Layout: magic, creation time, next sender/target seq, end offset; then records of
+ * {@code [seq:int][length:int][bytes]}.
+ */
+public final class FixMappedStore implements MessageStore, Closeable {
+  private static final int MAGIC = 0x52464D53; // "RFMS"
+  private static final int CREATED = 4, NEXT_SENDER = 12, NEXT_TARGET = 16, END = 20, HEADER = 32;
+  private static final int MAX_SIZE = 1 << 30;
+  private static final Charset CHARSET = StandardCharsets.ISO_8859_1;
+
+  private final Path file;
+  private final FileChannel channel;
+  private MappedByteBuffer map;
+  private final Map<Integer, Integer> offsets = new HashMap<>();
+
+  /** Files go to the session's FileStorePath (default {@code store}). */
+  public static final class Factory implements MessageStoreFactory {
+    private final SessionSettings settings;
+
+    public Factory(SessionSettings settings) { this.settings = settings; }
+
+    @Override public MessageStore create(SessionID sid) {
+      try {
+        String dir = settings.isSetting(sid, FileStoreFactory.SETTING_FILE_STORE_PATH)
+            ? settings.getString(sid, FileStoreFactory.SETTING_FILE_STORE_PATH) : "store";
+        int size = settings.isSetting(sid, "RfStoreMapSize") ? (int) settings.getLong(sid, "RfStoreMapSize") : 64 << 20;
+        String name = (sid.getBeginString() + "-" + sid.getSenderCompID() + "-" + sid.getTargetCompID()
+            + (sid.getSessionQualifier().isEmpty() ? "" : "-" + sid.getSessionQualifier())).replaceAll("[^A-Za-z0-9.-]", "_");
+        return new FixMappedStore(Paths.get(dir, name + ".mmap"), size);
+      } catch (ConfigError | FieldConvertError e) {
+        throw new IllegalArgumentException("Bad store settings for " + sid + ": " + e.getMessage(), e);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot open mapped store for " + sid + ": " + e.getMessage(), e);
+      }
+    }
+  }
+
+  public FixMappedStore(Path file, int initialSize) throws IOException {
+    this.file = file;
+    if (file.getParent() != null) Files.createDirectories(file.getParent());
+    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    long existing = channel.size();
+    map = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(existing, Math.max(initialSize, 4096)));
+    if (existing < HEADER || map.getInt(0) != MAGIC) reset();
+    else index();
+  }
+
+  @Override public synchronized boolean set(int seq, String message) throws IOException {
+    byte[] bytes = message.getBytes(CHARSET);
+    int at = end();
+    ensure(at + 8L + bytes.length);
+    map.putInt(at, seq);
+    map.putInt(at + 4, bytes.length);
+    map.put(at + 8, bytes);
+    map.putInt(END, at + 8 + bytes.length);
+    offsets.put(seq, at);
+    return true;
+  }
+
+  @Override public synchronized void get(int start, int end, Collection<String> out) {
+    for (int seq = start; seq <= end; seq++) {
+      Integer at = offsets.get(seq);
+      if (at == null) continue;
+      byte[] bytes = new byte[map.getInt(at + 4)];
+      map.get(at + 8, bytes);
+      out.add(new String(bytes, CHARSET));
+    }
+  }
+
+  @Override public synchronized int getNextSenderMsgSeqNum() { return map.getInt(NEXT_SENDER); }
+
+  @Override public synchronized int getNextTargetMsgSeqNum() { return map.getInt(NEXT_TARGET); }
+
+  @Override public synchronized void setNextSenderMsgSeqNum(int next) { map.putInt(NEXT_SENDER, next); }
+
+  @Override public synchronized void setNextTargetMsgSeqNum(int next) { map.putInt(NEXT_TARGET, next); }
+
+  @Override public synchronized void incrNextSenderMsgSeqNum() { map.putInt(NEXT_SENDER, map.getInt(NEXT_SENDER) + 1); }
+
+  @Override public synchronized void incrNextTargetMsgSeqNum() { map.putInt(NEXT_TARGET, map.getInt(NEXT_TARGET) + 1); }
+
+  @Override public synchronized Date getCreationTime() { return new Date(map.getLong(CREATED)); }
+
+  @Override public synchronized void reset() {
+    map.putInt(0, MAGIC);
+    map.putLong(CREATED, System.currentTimeMillis());
+    map.putInt(NEXT_SENDER, 1);
+    map.putInt(NEXT_TARGET, 1);
+    map.putInt(END, HEADER);
+    offsets.clear();
+  }
+
+  /** Re-reads the file; the mapping already reflects it, so only the index is rebuilt. */
+  @Override public synchronized void refresh() { index(); }
+
+  /** Called by QuickFIX/J when the session is closed; dirty pages are left to the OS. */
+  @Override public synchronized void close() throws IOException { channel.close(); }
+
+  private int end() { return map.getInt(END); }
+
+  private void index() {
+    offsets.clear();
+    int end = end();
+    for (int at = HEADER; at + 8 <= end; at += 8 + map.getInt(at + 4)) offsets.put(map.getInt(at), at);
+  }
+
+  private void ensure(long needed) throws IOException {
+    if (needed <= map.capacity()) return;
+    if (needed > MAX_SIZE) throw new IOException("Mapped FIX store " + file + " is full (" + MAX_SIZE + " bytes); reset the session");
+    long size = map.capacity();
+    while (size < needed) size *= 2;
+    map = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(size, MAX_SIZE));
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.rf.keywords.core;
+
+import quickfix.CachedFileStoreFactory;
+import quickfix.CompositeLogFactory;
+import quickfix.ConfigError;
+import quickfix.FieldConvertError;
+import quickfix.FileLogFactory;
+import quickfix.FileStoreFactory;
+import quickfix.LogFactory;
+import quickfix.MemoryStoreFactory;
+import quickfix.MessageStoreFactory;
+import quickfix.NoopStoreFactory;
+import quickfix.ScreenLogFactory;
+import quickfix.SessionSettings;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Shared QuickFIX/J plumbing for the initiator and the simulator: cfg loading and the
+ * store / log choices selected by keyword argument or by {@code Rf*} keys in the cfg.
+ */
+public final class FixSessions {
+  private FixSessions() {}
+
+  /**
+   * Loads a cfg file. If the name begins with {@code classpath:} the remainder is loaded
+   * from the classpath, so configs bundled in the jar keep suites portable.
+   */
+  public static SessionSettings load(String cfgFile) throws Exception {
+    if (cfgFile != null && cfgFile.startsWith("classpath:")) {
+      String resource = cfgFile.substring("classpath:".length());
+      // remove any leading slashes so ResourceLoader can find it
+      while (resource.startsWith("/") || resource.startsWith("\\")) {
+        resource = resource.substring(1);
+      }
+      try (InputStream in = FixSessions.class.getClassLoader().getResourceAsStream(resource)) {
+        if (in == null) throw new FileNotFoundException("FIX config resource not found on classpath: " + resource);
+        return new SessionSettings(in);
+      }
+    }
+    try (InputStream in = new FileInputStream(cfgFile)) {
+      return new SessionSettings(in);
+    }
+  }
+
+  /** Keyword argument if given, else the cfg [DEFAULT] setting, else the default. */
+  public static String option(SessionSettings settings, String arg, String key, String def) throws ConfigError, FieldConvertError {
+    if (arg != null && !arg.isBlank()) return arg.trim().toLowerCase(Locale.ROOT);
+    return settings.isSetting(key) ? settings.getString(key).trim().toLowerCase(Locale.ROOT) : def;
+  }
+
+  /** file, cachedfile, mmap, memory or noop. */
+  public static MessageStoreFactory store(String type, SessionSettings settings) {
+    switch (type) {
+      case "file": return new FileStoreFactory(settings);
+      case "cachedfile": return new CachedFileStoreFactory(settings);
+      case "mmap": return new FixMappedStore.Factory(settings);
+      case "memory": return new MemoryStoreFactory();
+      case "noop": return new NoopStoreFactory();
+      default: throw new IllegalArgumentException("store must be file, cachedfile, mmap, memory or noop. Got: " + type);
+    }
+  }
+
+  /**
+   * screen, async, file or none; categories is a comma-separated subset of
+   * incoming,outgoing,events. The caller closes the factory when it is an {@link AsyncFixLog}.
+   */
+  public static LogFactory log(String type, String categories, SessionSettings settings) throws Exception {
+    List<String> on = List.of(categories.replace(" ", "").split(","));
+    boolean in = on.contains("incoming"), out = on.contains("outgoing"), events = on.contains("events");
+    switch (type) {
+      case "screen": return new ScreenLogFactory(in, out, events);
+      case "file": return new FileLogFactory(settings);
+      case "none": return new CompositeLogFactory(new LogFactory[0]); // logs to nothing
+      case "async":
+        String file = settings.isSetting("RfLogFile") ? settings.getString("RfLogFile") : null;
+        int capacity = settings.isSetting("RfLogQueue") ? (int) settings.getLong("RfLogQueue") : 65536;
+        return new AsyncFixLog(in, out, events, file == null ? null : Path.of(file), capacity);
+      default: throw new IllegalArgumentException("log must be screen, async, file or none. Got: " + type);
+    }
+  }
+}
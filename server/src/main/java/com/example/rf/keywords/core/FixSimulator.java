@@ -0,0 +1,363 @@
+package com.example.rf.keywords.core;
+
+import quickfix.Application;
+import quickfix.ConfigError;
+import quickfix.DefaultMessageFactory;
+import quickfix.FieldNotFound;
+import quickfix.LogFactory;
+import quickfix.Message;
+import quickfix.MessageStoreFactory;
+import quickfix.Session;
+import quickfix.SessionID;
+import quickfix.SessionSettings;
+import quickfix.SocketAcceptor;
+import quickfix.field.AvgPx;
+import quickfix.field.ClOrdID;
+import quickfix.field.CumQty;
+import quickfix.field.ExecID;
+import quickfix.field.ExecTransType;
+import quickfix.field.ExecType;
+import quickfix.field.LastPx;
+import quickfix.field.LastShares;
+import quickfix.field.LeavesQty;
+import quickfix.field.MsgType;
+import quickfix.field.OrdRejReason;
+import quickfix.field.OrdStatus;
+import quickfix.field.OrdType;
+import quickfix.field.OrderID;
+import quickfix.field.OrderQty;
+import quickfix.field.Price;
+import quickfix.field.Side;
+import quickfix.field.Symbol;
+import quickfix.field.Text;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process FIX counterparty on a QuickFIX/J {@link SocketAcceptor}. In {@code auto} mode each
+ * NewOrderSingle gets a scripted sequence of ExecutionReports (e.g. ack, partial, fill). In
+ * {@code match} mode orders go into a per-symbol price-time book and cross against each other;
+ * the unfilled rest of a market order is cancelled. Reports are sent on the acceptor thread, or
+ * from one scheduler thread when a latency is injected, so each order's reports stay in order.
+ */
+public final class FixSimulator implements Application, Closeable {
+  private static final double EPS = 1e-9;
+
+  public enum Mode { AUTO, MATCH }
+
+  public enum Step { ACK, PARTIAL, FILL, REJECT, NONE }
+
+  /** What the simulator does with each order; replaced as a whole. */
+  public static final class Behaviour {
+    final Mode mode;
+    final List<Step> steps;
+    final long latencyMs;
+    final int rejectEvery;
+    final AtomicLong orders = new AtomicLong(); // counted from when this behaviour was set
+
+    public Behaviour(String mode, String steps, long latencyMs, int rejectEvery) {
+      this.mode = parse(Mode.class, mode, "mode must be auto or match");
+      List<Step> parsed = new ArrayList<>();
+      for (String s : steps.split(",")) {
+        if (!s.isBlank()) parsed.add(parse(Step.class, s, "steps must list ack, partial, fill, reject or none"));
+      }
+      if (parsed.isEmpty()) throw new IllegalArgumentException("steps must list ack, partial, fill, reject or none");
+      this.steps = List.copyOf(parsed);
+      this.latencyMs = latencyMs;
+      this.rejectEvery = rejectEvery;
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value, String error) {
+      try {
+        return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(error + ". Got: " + value);
+      }
+    }
+
+    public Map<String, Object> toMap() {
+      Map<String, Object> m = new LinkedHashMap<>();
+      m.put("mode", mode.name().toLowerCase(Locale.ROOT));
+      m.put("steps", steps.toString().toLowerCase(Locale.ROOT));
+      m.put("latencyMs", latencyMs);
+      m.put("rejectEvery", rejectEvery);
+      return m;
+    }
+  }
+
+  private static final class Order {
+    final SessionID sid;
+    final String clOrdId, orderId, symbol;
+    final char side;
+    final boolean limit;
+    final double qty, price;
+    double leaves, cum, notional;
+
+    Order(SessionID sid, String clOrdId, String orderId, String symbol, char side, boolean limit, double qty, double price) {
+      this.sid = sid;
+      this.clOrdId = clOrdId;
+      this.orderId = orderId;
+      this.symbol = symbol;
+      this.side = side;
+      this.limit = limit;
+      this.qty = qty;
+      this.price = price;
+      this.leaves = qty;
+    }
+
+    boolean buy() { return side == Side.BUY; }
+
+    void fill(double q, double px) {
+      leaves -= q;
+      cum += q;
+      notional += q * px;
+    }
+  }
+
+  /** Resting orders by price, best first, then by arrival. */
+  private static final class Book {
+    final TreeMap<Double, ArrayDeque<Order>> bids = new TreeMap<>(Comparator.reverseOrder());
+    final TreeMap<Double, ArrayDeque<Order>> asks = new TreeMap<>();
+  }
+
+  private final SocketAcceptor acceptor;
+  private final LogFactory logFactory;
+  private final ScheduledExecutorService delays = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread t = new Thread(r, "rf-fixsim");
+    t.setDaemon(true);
+    return t;
+  });
+  private volatile Behaviour behaviour = new Behaviour("auto", "ack,fill", 0, 0);
+  private final AtomicLong orderSeq = new AtomicLong(), execSeq = new AtomicLong();
+  private final LongAdder received = new LongAdder(), reports = new LongAdder(), rejects = new LongAdder();
+  private final LongAdder trades = new LongAdder(), cancels = new LongAdder();
+  private final Map<String, Book> books = new HashMap<>();      // guarded by books
+  private final Map<String, Order> resting = new HashMap<>();   // session + ClOrdID -> order, guarded by books
+
+  public FixSimulator(SessionSettings settings, MessageStoreFactory store, LogFactory log) throws ConfigError {
+    this.logFactory = log;
+    this.acceptor = new SocketAcceptor(this, store, settings, log, new DefaultMessageFactory());
+  }
+
+  public void start() throws ConfigError { acceptor.start(); }
+
+  @Override public void close() {
+    acceptor.stop();
+    delays.shutdownNow();
+    if (logFactory instanceof Closeable) {
+      try { ((Closeable) logFactory).close(); } catch (Exception ignored) { /* best effort */ }
+    }
+  }
+
+  public void behave(Behaviour b) { behaviour = b; }
+
+  public Behaviour behaviour() { return behaviour; }
+
+  public boolean loggedOn() {
+    for (SessionID sid : acceptor.getSessions()) {
+      Session s = Session.lookupSession(sid);
+      if (s != null && s.isLoggedOn()) return true;
+    }
+    return false;
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("orders", received.sum());
+    m.put("reports", reports.sum());
+    m.put("rejects", rejects.sum());
+    m.put("trades", trades.sum());
+    m.put("cancels", cancels.sum());
+    synchronized (books) { m.put("resting", resting.size()); }
+    m.put("loggedOn", loggedOn());
+    return m;
+  }
+
+  /** Resting orders of one symbol, best price first: {bids: [{clOrdId, price, leaves}], asks: [...]}. */
+  public Map<String, Object> book(String symbol) {
+    Map<String, Object> m = new LinkedHashMap<>();
+    synchronized (books) {
+      Book b = books.get(symbol);
+      m.put("bids", levels(b == null ? null : b.bids));
+      m.put("asks", levels(b == null ? null : b.asks));
+    }
+    return m;
+  }
+
+  /** Drops every resting order without reporting it. */
+  public void clearBooks() {
+    synchronized (books) {
+      books.clear();
+      resting.clear();
+    }
+  }
+
+  // ---- Application callbacks ----
+  @Override public void onCreate(SessionID sid) { /* no-op */ }
+  @Override public void onLogon(SessionID sid) { /* no-op */ }
+  @Override public void onLogout(SessionID sid) { /* no-op */ }
+  @Override public void toAdmin(Message msg, SessionID sid) { /* no-op */ }
+  @Override public void fromAdmin(Message msg, SessionID sid) { /* no-op */ }
+  @Override public void toApp(Message msg, SessionID sid) { /* no-op */ }
+
+  @Override public void fromApp(Message msg, SessionID sid) throws FieldNotFound {
+    String type = msg.getHeader().getString(MsgType.FIELD);
+    if (MsgType.ORDER_SINGLE.equals(type)) onOrder(msg, sid);
+  }
+
+  private void onOrder(Message msg, SessionID sid) throws FieldNotFound {
+    received.increment();
+    long n = orderSeq.incrementAndGet();
+    boolean limit = msg.getChar(OrdType.FIELD) != OrdType.MARKET;
+    Order o = new Order(sid, msg.getString(ClOrdID.FIELD), "SIM" + n, msg.getString(Symbol.FIELD),
+        msg.getChar(Side.FIELD), limit, msg.getDouble(OrderQty.FIELD), limit ? msg.getDouble(Price.FIELD) : 0);
+    Behaviour b = behaviour;
+    if (b.rejectEvery > 0 && b.orders.incrementAndGet() % b.rejectEvery == 0) {
+      later(b.latencyMs, () -> reject(o, "Rejected by simulator (every " + b.rejectEvery + ")"));
+    } else if (b.mode == Mode.MATCH) {
+      later(b.latencyMs, () -> match(o));
+    } else {
+      script(o, b);
+    }
+  }
+
+  /** Plays the steps, one latency apart; partial and fill steps share the quantity equally. */
+  private void script(Order o, Behaviour b) {
+    long slices = b.steps.stream().filter(s -> s == Step.PARTIAL || s == Step.FILL).count();
+    long delay = 0;
+    for (Step step : b.steps) {
+      delay += b.latencyMs;
+      switch (step) {
+        case ACK: later(delay, () -> report(o, ExecType.NEW, OrdStatus.NEW, 0, 0, null)); break;
+        case PARTIAL: later(delay, () -> execute(o, Math.min(o.leaves, o.qty / slices), price(o))); break;
+        case FILL: later(delay, () -> execute(o, o.leaves, price(o))); break;
+        case REJECT: later(delay, () -> reject(o, "Rejected by simulator")); break;
+        case NONE: break;
+      }
+    }
+  }
+
+  private void match(Order o) {
+    synchronized (books) {
+      report(o, ExecType.NEW, OrdStatus.NEW, 0, 0, null);
+      Book book = books.computeIfAbsent(o.symbol, k -> new Book());
+      TreeMap<Double, ArrayDeque<Order>> other = o.buy() ? book.asks : book.bids;
+      while (o.leaves > EPS && !other.isEmpty()) {
+        Map.Entry<Double, ArrayDeque<Order>> best = other.firstEntry();
+        double px = best.getKey();
+        if (o.limit && (o.buy() ? px > o.price + EPS : px < o.price - EPS)) break;
+        Order r = best.getValue().peekFirst();
+        double q = Math.min(o.leaves, r.leaves);
+        execute(r, q, px);
+        execute(o, q, px);
+        trades.increment();
+        if (r.leaves <= EPS) {
+          best.getValue().pollFirst();
+          resting.remove(key(r.sid, r.clOrdId));
+          if (best.getValue().isEmpty()) other.remove(px);
+        }
+      }
+      if (o.leaves <= EPS) return;
+      if (!o.limit) {
+        cancels.increment();
+        report(o, ExecType.CANCELED, OrdStatus.CANCELED, 0, 0, "No liquidity for market order remainder");
+        return;
+      }
+      (o.buy() ? book.bids : book.asks).computeIfAbsent(o.price, k -> new ArrayDeque<>()).addLast(o);
+      resting.put(key(o.sid, o.clOrdId), o);
+    }
+  }
+
+  private void execute(Order o, double q, double px) {
+    if (q <= EPS) return;
+    o.fill(q, px);
+    boolean done = o.leaves <= EPS;
+    char ordStatus = done ? OrdStatus.FILLED : OrdStatus.PARTIALLY_FILLED;
+    char execType = fix43OrLater(o.sid) ? ExecType.TRADE : done ? ExecType.FILL : ExecType.PARTIAL_FILL;
+    report(o, execType, ordStatus, q, px, null);
+  }
+
+  private void reject(Order o, String text) {
+    rejects.increment();
+    Message er = er(o, ExecType.REJECTED, OrdStatus.REJECTED, 0, 0, text);
+    er.setInt(OrdRejReason.FIELD, OrdRejReason.BROKER_EXCHANGE_OPTION); // 0 exists in every FIX version
+    send(o.sid, er);
+  }
+
+  private void report(Order o, char execType, char ordStatus, double lastQty, double lastPx, String text) {
+    send(o.sid, er(o, execType, ordStatus, lastQty, lastPx, text));
+  }
+
+  private Message er(Order o, char execType, char ordStatus, double lastQty, double lastPx, String text) {
+    Message er = new Message();
+    er.getHeader().setString(MsgType.FIELD, MsgType.EXECUTION_REPORT);
+    er.setString(OrderID.FIELD, o.orderId);
+    er.setString(ExecID.FIELD, "E" + execSeq.incrementAndGet());
+    if (!fix43OrLater(o.sid)) er.setChar(ExecTransType.FIELD, ExecTransType.NEW);
+    er.setChar(ExecType.FIELD, execType);
+    er.setChar(OrdStatus.FIELD, ordStatus);
+    er.setString(ClOrdID.FIELD, o.clOrdId);
+    er.setString(Symbol.FIELD, o.symbol);
+    er.setChar(Side.FIELD, o.side);
+    er.setDouble(OrderQty.FIELD, o.qty);
+    if (o.limit) er.setDouble(Price.FIELD, o.price);
+    if (lastQty > 0) {
+      er.setDouble(LastShares.FIELD, lastQty);
+      er.setDouble(LastPx.FIELD, lastPx);
+    }
+    boolean closed = ordStatus == OrdStatus.CANCELED || ordStatus == OrdStatus.REJECTED;
+    er.setDouble(LeavesQty.FIELD, closed ? 0 : Math.max(0, o.leaves));
+    er.setDouble(CumQty.FIELD, o.cum);
+    er.setDouble(AvgPx.FIELD, o.cum > 0 ? o.notional / o.cum : 0);
+    if (text != null) er.setString(Text.FIELD, text);
+    return er;
+  }
+
+  private void send(SessionID sid, Message msg) {
+    Session s = Session.lookupSession(sid);
+    if (s != null && s.send(msg)) reports.increment();
+  }
+
+  private void later(long delayMs, Runnable task) {
+    if (delayMs <= 0) task.run();
+    else delays.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+  }
+
+  private static double price(Order o) { return o.limit ? o.price : 0; }
+
+  private static boolean fix43OrLater(SessionID sid) {
+    String v = sid.getBeginString();
+    return v.startsWith("FIXT") || v.compareTo("FIX.4.3") >= 0;
+  }
+
+  private static String key(SessionID sid, String clOrdId) { return sid + "\u0000" + clOrdId; }
+
+  private static List<Map<String, Object>> levels(TreeMap<Double, ArrayDeque<Order>> side) {
+    List<Map<String, Object>> out = new ArrayList<>();
+    if (side == null) return out;
+    for (ArrayDeque<Order> level : side.values()) {
+      for (Order o : level) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("clOrdId", o.clOrdId);
+        m.put("price", o.price);
+        m.put("leaves", o.leaves);
+        out.add(m);
+      }
+    }
+    return out;
+  }
+}
@@ -0,0 +1,149 @@
+package com.example.rf.keywords.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Lightweight alternative to RestAssured built on one shared {@link HttpClient}: connections
+ * are pooled and kept alive across sessions, HTTP/2 is negotiated where the server offers it,
+ * and each session's headers are pre-built once (see {@link ApiSessionStore.Session}).
+ *
+ * <p>Tunables: {@code rf.http.version} (HTTP_2 | HTTP_1_1), {@code rf.http.timeoutSec};
+ * pool keep-alive via the JDK property {@code jdk.httpclient.keepalive.timeout}.
+ */
+public final class HttpClientEngine {
+  private HttpClientEngine() {}
+
+  private static final class Holder {
+    static final Duration TIMEOUT = Duration.ofSeconds(Long.parseLong(EnvUtils.get("rf.http.timeoutSec", "60")));
+    static final HttpClient CLIENT = HttpClient.newBuilder()
+        .version(HttpClient.Version.valueOf(EnvUtils.get("rf.http.version", "HTTP_2")))
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .connectTimeout(TIMEOUT)
+        .build();
+  }
+
+  public static ApiResponse send(ApiSessionStore.Session s, String method, String path,
+                                 Map<String, ?> params, String body) {
+    long t0 = System.nanoTime();
+    try {
+      HttpResponse<byte[]> r = Holder.CLIENT.send(request(s, method, path, params, body), HttpResponse.BodyHandlers.ofByteArray());
+      return ApiResponse.of(r, (System.nanoTime() - t0) / 1_000_000L);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted: " + method + " " + path, e);
+    } catch (java.io.IOException e) {
+      throw new RuntimeException(method + " " + path + " failed: " + e.getMessage(), e);
+    }
+  }
+
+  /** Non-blocking variant; completes on the client's own executor. */
+  public static CompletableFuture<ApiResponse> sendAsync(ApiSessionStore.Session s, String method, String path,
+                                                         Map<String, ?> params, String body) {
+    long t0 = System.nanoTime();
+    return Holder.CLIENT.sendAsync(request(s, method, path, params, body), HttpResponse.BodyHandlers.ofByteArray())
+        .thenApply(r -> ApiResponse.of(r, (System.nanoTime() - t0) / 1_000_000L));
+  }
+
+  /**
+   * Stream the body straight into {@code target} through a file channel, hashing and counting
+   * on the way, so it never sits on the heap. The body is written to {@code <target>.part}
+   * and moved into place when complete. A body over {@code maxBytes} (0 = no limit) fails
+   * and leaves no file behind; a larger Content-Length fails before anything is read.
+   */
+  public static ApiResponse download(ApiSessionStore.Session s, String method, String path,
+                                     Map<String, ?> params, Path target, long maxBytes) {
+    long t0 = System.nanoTime();
+    Path part = target.resolveSibling(target.getFileName() + ".part");
+    try {
+      HttpResponse<InputStream> r = Holder.CLIENT.send(request(s, method, path, params, null),
+          HttpResponse.BodyHandlers.ofInputStream());
+      long declared = r.headers().firstValueAsLong("Content-Length").orElse(-1);
+      MessageDigest md = ApiResponse.sha256Digest();
+      long size = 0;
+      try (InputStream in = r.body()) {
+        if (maxBytes > 0 && declared > maxBytes) throw tooLarge(method, path, "Content-Length " + declared, maxBytes);
+        if (target.getParent() != null) Files.createDirectories(target.getParent());
+        try (FileChannel out = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+          byte[] buf = new byte[64 * 1024];
+          ByteBuffer bb = ByteBuffer.wrap(buf);
+          for (int n; (n = in.read(buf)) > 0; ) {
+            size += n;
+            if (maxBytes > 0 && size > maxBytes) throw tooLarge(method, path, "read " + size + " so far", maxBytes);
+            md.update(buf, 0, n);
+            bb.clear().limit(n);
+            while (bb.hasRemaining()) out.write(bb);
+          }
+        }
+      }
+      Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+      return ApiResponse.ofFile(r.statusCode(), (System.nanoTime() - t0) / 1_000_000L,
+          r.headers().firstValue("Content-Type").orElse(""), target, size, HexFormat.of().formatHex(md.digest()));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted: " + method + " " + path, e);
+    } catch (IOException e) {
+      throw new RuntimeException(method + " " + path + " download failed: " + e.getMessage(), e);
+    } finally {
+      try { Files.deleteIfExists(part); } catch (IOException ignored) { /* best effort */ }
+    }
+  }
+
+  private static AssertionError tooLarge(String method, String path, String got, long maxBytes) {
+    return new AssertionError("Body of " + method + " " + path + " exceeds " + maxBytes + " bytes (" + got + ")");
+  }
+
+  private static HttpRequest request(ApiSessionStore.Session s, String method, String path,
+                                     Map<String, ?> params, String body) {
+    HttpRequest.Builder b = HttpRequest.newBuilder(uri(s.baseUrl(), path, params)).timeout(Holder.TIMEOUT);
+    String[] headers = s.headerPairs();
+    if (headers.length > 0) b.headers(headers);
+    if (body != null) {
+      b.header("Content-Type", "application/json");
+      b.method(method, HttpRequest.BodyPublishers.ofString(body));
+    } else {
+      b.method(method, HttpRequest.BodyPublishers.noBody());
+    }
+    return b.build();
+  }
+
+  static URI uri(String baseUrl, String path, Map<String, ?> params) {
+    StringBuilder sb = new StringBuilder(baseUrl.length() + path.length() + 32);
+    if (path.startsWith("http://") || path.startsWith("https://")) {
+      sb.append(path);
+    } else {
+      sb.append(baseUrl);
+      boolean slashEnd = baseUrl.endsWith("/"), slashStart = path.startsWith("/");
+      if (slashEnd && slashStart) sb.setLength(sb.length() - 1);
+      else if (!slashEnd && !slashStart && !path.isEmpty()) sb.append('/');
+      sb.append(path);
+    }
+    if (params != null && !params.isEmpty()) {
+      char sep = sb.indexOf("?") >= 0 ? '&' : '?';
+      for (var e : params.entrySet()) {
+        sb.append(sep).append(URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8))
+          .append('=').append(URLEncoder.encode(String.valueOf(e.getValue()), StandardCharsets.UTF_8));
+        sep = '&';
+      }
+    }
+    return URI.create(sb.toString());
+  }
+}
@@ -0,0 +1,275 @@
+package com.example.rf.keywords.core;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Structural diff of two JSON documents in one streaming pass over both.
+ *
+ * <p>The two parsers advance in lockstep. Objects are compared field by field while both sides
+ * list their keys in the same order. When the order diverges, only the rest of that object is
+ * read into trees and compared by key. Arrays are compared by index. Numbers are equal when
+ * they differ by at most the tolerance; with tolerance 0 they compare by decimal value, so
+ * {@code 1} equals {@code 1.0}.
+ *
+ * <p>Paths look like {@code $.items[3].price}. Ignore paths use the same form, where {@code *}
+ * stands for one key or index ({@code $.items[*].updatedAt}, {@code $.meta.*}), {@code [0,2]}
+ * lists indexes and {@code ..key} matches the key at any depth. Only the first {@code maxDiffs} differences are kept, but all are
+ * counted.
+ */
+public final class JsonDiff {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final JsonFactory FACTORY = MAPPER.getFactory();
+  private static final Pattern PLAIN_KEY = Pattern.compile("[A-Za-z_][A-Za-z0-9_-]*");
+  private static final Pattern INDEXES = Pattern.compile("\\[(\\d+(?:\\s*,\\s*\\d+)*)\\]");
+  private static final int MAX_VALUE_CHARS = 200;
+
+  private final List<Pattern> ignore = new ArrayList<>();
+  private final BigDecimal tolerance;
+  private final int maxDiffs;
+  private final List<Map<String, Object>> diffs = new ArrayList<>();
+  private long count;
+
+  public JsonDiff(List<String> ignorePaths, double tolerance, int maxDiffs) {
+    for (String p : ignorePaths) if (!p.isBlank()) ignore.add(compileIgnore(p.trim()));
+    this.tolerance = BigDecimal.valueOf(Math.abs(tolerance));
+    this.maxDiffs = maxDiffs;
+  }
+
+  /** Inline JSON text (starting with '{' or '[') or a file path. */
+  public static JsonParser open(String source) throws IOException {
+    String s = source.trim();
+    if (s.startsWith("{") || s.startsWith("[")) return FACTORY.createParser(s);
+    return FACTORY.createParser(Path.of(s).toFile());
+  }
+
+  /** {equal, differences, truncated, diffs: [{path, kind, left, right}]}; kind is changed, type, added or removed. */
+  public Map<String, Object> compare(String left, String right) {
+    try (JsonParser a = open(left); JsonParser b = open(right)) {
+      JsonToken ta = a.nextToken(), tb = b.nextToken();
+      if (ta == null || tb == null) {
+        if (ta != tb) add("$", ta == null ? "added" : "removed", ta == null ? null : tree(a),
+            tb == null ? null : tree(b));
+      } else {
+        value(a, b, "$");
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot diff JSON: " + e.getMessage(), e);
+    }
+    Map<String, Object> out = new LinkedHashMap<>();
+    out.put("equal", count == 0);
+    out.put("differences", count);
+    out.put("truncated", count > diffs.size());
+    out.put("diffs", diffs);
+    return out;
+  }
+
+  // ---------- Streaming comparison ----------
+
+  /** Both parsers are on the first token of a value; leaves both on its last token. */
+  private void value(JsonParser a, JsonParser b, String path) throws IOException {
+    if (ignored(path)) {
+      a.skipChildren();
+      b.skipChildren();
+      return;
+    }
+    JsonToken ta = a.currentToken(), tb = b.currentToken();
+    if (ta == JsonToken.START_OBJECT && tb == JsonToken.START_OBJECT) {
+      object(a, b, path);
+    } else if (ta == JsonToken.START_ARRAY && tb == JsonToken.START_ARRAY) {
+      array(a, b, path);
+    } else if (ta.isStructStart() || tb.isStructStart() || kind(ta) != kind(tb)) {
+      add(path, "type", tree(a), tree(b));
+    } else if (ta.isNumeric()) {
+      if (!numbersEqual(a.getDecimalValue(), b.getDecimalValue())) add(path, "changed", tree(a), tree(b));
+    } else if (ta == JsonToken.VALUE_STRING) {
+      if (!a.getText().equals(b.getText())) add(path, "changed", tree(a), tree(b));
+    } else if (ta != tb) {
+      add(path, "changed", tree(a), tree(b));
+    }
+  }
+
+  private void object(JsonParser a, JsonParser b, String path) throws IOException {
+    while (true) {
+      JsonToken ta = a.nextToken(), tb = b.nextToken();
+      if (ta == JsonToken.END_OBJECT && tb == JsonToken.END_OBJECT) return;
+      String ka = ta == JsonToken.FIELD_NAME ? a.currentName() : null;
+      String kb = tb == JsonToken.FIELD_NAME ? b.currentName() : null;
+      if (ka != null && ka.equals(kb)) {
+        a.nextToken();
+        b.nextToken();
+        value(a, b, child(path, ka));
+        continue;
+      }
+      // key order diverged: read the rest of this object on both sides and compare by key
+      nodes(rest(a, ka), rest(b, kb), path);
+      return;
+    }
+  }
+
+  /** Remaining fields of the object, starting at field {@code first} (null when already at its end). */
+  private static Map<String, JsonNode> rest(JsonParser p, String first) throws IOException {
+    Map<String, JsonNode> out = new LinkedHashMap<>();
+    String name = first;
+    while (name != null) {
+      p.nextToken();
+      out.put(name, tree(p));
+      name = p.nextToken() == JsonToken.FIELD_NAME ? p.currentName() : null;
+    }
+    return out;
+  }
+
+  private void array(JsonParser a, JsonParser b, String path) throws IOException {
+    for (int i = 0; ; i++) {
+      JsonToken ta = a.nextToken(), tb = b.nextToken();
+      boolean endA = ta == JsonToken.END_ARRAY, endB = tb == JsonToken.END_ARRAY;
+      if (endA && endB) return;
+      if (endA) {
+        for (; tb != JsonToken.END_ARRAY; tb = b.nextToken(), i++) {
+          String p = index(path, i);
+          JsonNode v = tree(b);
+          if (!ignored(p)) add(p, "added", null, v);
+        }
+        return;
+      }
+      if (endB) {
+        for (; ta != JsonToken.END_ARRAY; ta = a.nextToken(), i++) {
+          String p = index(path, i);
+          JsonNode v = tree(a);
+          if (!ignored(p)) add(p, "removed", v, null);
+        }
+        return;
+      }
+      value(a, b, index(path, i));
+    }
+  }
+
+  // ---------- Tree comparison (after key order diverged) ----------
+
+  private void nodes(Map<String, JsonNode> a, Map<String, JsonNode> b, String path) {
+    for (Map.Entry<String, JsonNode> e : a.entrySet()) {
+      String p = child(path, e.getKey());
+      JsonNode other = b.get(e.getKey());
+      if (other == null) {
+        if (!ignored(p)) add(p, "removed", e.getValue(), null);
+      } else {
+        node(e.getValue(), other, p);
+      }
+    }
+    for (Map.Entry<String, JsonNode> e : b.entrySet()) {
+      String p = child(path, e.getKey());
+      if (!a.containsKey(e.getKey()) && !ignored(p)) add(p, "added", null, e.getValue());
+    }
+  }
+
+  private void node(JsonNode a, JsonNode b, String path) {
+    if (ignored(path)) return;
+    if (a.isObject() && b.isObject()) {
+      Map<String, JsonNode> ma = new LinkedHashMap<>(), mb = new LinkedHashMap<>();
+      for (Map.Entry<String, JsonNode> e : a.properties()) ma.put(e.getKey(), e.getValue());
+      for (Map.Entry<String, JsonNode> e : b.properties()) mb.put(e.getKey(), e.getValue());
+      nodes(ma, mb, path);
+    } else if (a.isArray() && b.isArray()) {
+      int n = Math.max(a.size(), b.size());
+      for (int i = 0; i < n; i++) {
+        String p = index(path, i);
+        if (i >= a.size()) { if (!ignored(p)) add(p, "added", null, b.get(i)); }
+        else if (i >= b.size()) { if (!ignored(p)) add(p, "removed", a.get(i), null); }
+        else node(a.get(i), b.get(i), p);
+      }
+    } else if (a.getNodeType() != b.getNodeType()) {
+      add(path, "type", a, b);
+    } else if (a.isNumber()) {
+      if (!numbersEqual(a.decimalValue(), b.decimalValue())) add(path, "changed", a, b);
+    } else if (!a.equals(b)) {
+      add(path, "changed", a, b);
+    }
+  }
+
+  // ---------- Helpers ----------
+
+  private static JsonNode tree(JsonParser p) throws IOException { return MAPPER.readTree(p); }
+
+  private boolean numbersEqual(BigDecimal x, BigDecimal y) {
+    return x.subtract(y).abs().compareTo(tolerance) <= 0;
+  }
+
+  /** Scalar kind, so true vs false is a change but true vs "true" is a type difference. */
+  private static int kind(JsonToken t) {
+    switch (t) {
+      case VALUE_NUMBER_INT: case VALUE_NUMBER_FLOAT: return 1;
+      case VALUE_STRING: return 2;
+      case VALUE_TRUE: case VALUE_FALSE: return 3;
+      default: return 4;
+    }
+  }
+
+  private boolean ignored(String path) {
+    if (ignore.isEmpty()) return false;
+    for (Pattern p : ignore) if (p.matcher(path).matches()) return true;
+    return false;
+  }
+
+  private void add(String path, String kind, JsonNode left, JsonNode right) {
+    count++;
+    if (diffs.size() >= maxDiffs) return;
+    Map<String, Object> d = new LinkedHashMap<>();
+    d.put("path", path);
+    d.put("kind", kind);
+    d.put("left", preview(left));
+    d.put("right", preview(right));
+    diffs.add(d);
+  }
+
+  private static String preview(JsonNode v) {
+    if (v == null) return "";
+    String s = v.toString();
+    return s.length() <= MAX_VALUE_CHARS ? s : s.substring(0, MAX_VALUE_CHARS) + "...";
+  }
+
+  private static String child(String path, String key) {
+    return PLAIN_KEY.matcher(key).matches() ? path + "." + key : path + "['" + key.replace("'", "\\'") + "']";
+  }
+
+  private static String index(String path, int i) { return path + "[" + i + "]"; }
+
+  /** {@code $.a[*].b}, {@code $.a[0,2]}, {@code $.meta.*}, {@code $..id} to a regex over rendered paths. */
+  private static Pattern compileIgnore(String p) {
+    String s = p.startsWith("$") ? p.substring(1) : (p.startsWith(".") || p.startsWith("[") ? p : "." + p);
+    StringBuilder re = new StringBuilder("\\$");
+    Matcher indexes = INDEXES.matcher(s);
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (s.startsWith("..", i)) {
+        re.append("(?:\\.[^.\\[]+|\\[[^\\]]+\\])*\\.");
+        i++;
+      } else if (s.startsWith("[*]", i)) {
+        re.append("\\[\\d+\\]");
+        i += 2;
+      } else if (c == '[' && indexes.region(i, s.length()).lookingAt()) {
+        re.append("\\[(?:").append(indexes.group(1).replaceAll("\\s", "").replace(',', '|')).append(")\\]");
+        i = indexes.end() - 1;
+      } else if (c == '*') {
+        re.append("[^.\\[]+");
+      } else {
+        re.append(Pattern.quote(String.valueOf(c)));
+      }
+    }
+    // an ignored object or array also hides everything below it
+    return Pattern.compile(re + "(?:[.\\[].*)?");
+  }
+}
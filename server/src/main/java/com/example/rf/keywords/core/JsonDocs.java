@@ -0,0 +1,157 @@
+package com.example.rf.keywords.core;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parse-once / compile-once helpers for JSON path lookups.
+ *
+ * <p>GPath (RestAssured): plain dotted/indexed identifier paths such as {@code args.items[0].id}
+ * are compiled into a token list once and walked over the already-parsed tree, skipping Groovy
+ * evaluation; anything else, including hyphenated keys, falls back to
+ * {@link io.restassured.path.json.JsonPath#get(String)}.
+ *
+ * <p>JsonPath (Jayway): compiled expressions and the most recently parsed documents are cached.
+ * The document cache is bounded by estimated heap ({@code rf.json.docCacheBytes}, text plus tree),
+ * and documents larger than a quarter of it are parsed on every call rather than pinned.
+ */
+public final class JsonDocs {
+  private JsonDocs() {}
+
+  private static final int MAX_COMPILED = 4096;
+  private static final long MAX_DOC_BYTES = Long.parseLong(EnvUtils.get("rf.json.docCacheBytes", "33554432"));
+
+  /** Identifier segments only; {@code a.content-type} and the like go to GPath so both evaluators agree. */
+  private static final Pattern SIMPLE = Pattern.compile("(?:[A-Za-z_][A-Za-z0-9_]*|\\[-?\\d+])(?:\\.[A-Za-z_][A-Za-z0-9_]*|\\[-?\\d+])*");
+  private static final Pattern TOKEN = Pattern.compile("([A-Za-z_][A-Za-z0-9_]*)|\\[(-?\\d+)]");
+  /** Marker for paths that need real GPath evaluation. */
+  private static final Object[] NOT_SIMPLE = new Object[0];
+  private static final Object FALLBACK = new Object();
+
+  private static final Map<String, Object[]> GPATHS = new ConcurrentHashMap<>();
+  private static final Map<String, JsonPath> JSONPATHS = new ConcurrentHashMap<>();
+  /** Access-ordered; guarded by itself together with {@link #docBytes}. */
+  private static final LinkedHashMap<String, DocumentContext> DOCS = new LinkedHashMap<>(16, 0.75f, true);
+  private static long docBytes;
+
+  /** Evaluate a GPath against a response, parsing its body at most once. */
+  public static Object gpath(ApiResponse r, String path) {
+    Object[] tokens = compileGPath(path);
+    if (tokens != NOT_SIMPLE) {
+      Object v = walk(r.jsonRoot(), tokens);
+      if (v != FALLBACK) return v;
+    }
+    return r.json().get(path);
+  }
+
+  /** Compiled Jayway path, cached by expression text. */
+  public static JsonPath compiled(String jsonPath) {
+    JsonPath p = JSONPATHS.get(jsonPath);
+    if (p == null) {
+      p = JsonPath.compile(jsonPath);
+      if (JSONPATHS.size() < MAX_COMPILED) JSONPATHS.put(jsonPath, p);
+    }
+    return p;
+  }
+
+  /** Parsed Jayway document; repeated calls with the same text reuse the parse. */
+  public static DocumentContext parse(String json) {
+    long weight = weight(json);
+    if (weight > MAX_DOC_BYTES / 4) return com.jayway.jsonpath.JsonPath.parse(json);
+    DocumentContext doc;
+    synchronized (DOCS) {
+      doc = DOCS.get(json);
+    }
+    if (doc != null) return doc;
+    doc = com.jayway.jsonpath.JsonPath.parse(json);
+    synchronized (DOCS) {
+      if (DOCS.put(json, doc) == null) docBytes += weight;
+      Iterator<String> it = DOCS.keySet().iterator();
+      while (docBytes > MAX_DOC_BYTES && it.hasNext()) {
+        docBytes -= weight(it.next());
+        it.remove();
+      }
+    }
+    return doc;
+  }
+
+  /**
+   * Paths from a list, or from comma-separated text. Commas inside brackets, parentheses or quotes
+   * belong to the path, so unions ({@code $..book[0,1]}) and filters
+   * ({@code $[?(@.a in ['x','y'])]}) stay whole.
+   */
+  public static List<String> pathList(Object in) {
+    List<String> out = new ArrayList<>();
+    if (in == null) return out;
+    if (in instanceof Object[]) in = List.of((Object[]) in);
+    if (in instanceof List) {
+      for (Object p : (List<?>) in) out.add(String.valueOf(p).trim());
+      return out;
+    }
+    String s = String.valueOf(in);
+    int depth = 0, start = 0;
+    char quote = 0;
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (quote != 0) {
+        if (c == quote) quote = 0;
+      } else if (c == '\'' || c == '"') {
+        quote = c;
+      } else if (c == '[' || c == '(') {
+        depth++;
+      } else if ((c == ']' || c == ')') && depth > 0) {
+        depth--;
+      } else if (c == ',' && depth == 0) {
+        if (!s.substring(start, i).isBlank()) out.add(s.substring(start, i).trim());
+        start = i + 1;
+      }
+    }
+    if (!s.substring(start).isBlank()) out.add(s.substring(start).trim());
+    return out;
+  }
+
+  /** Text as UTF-16 plus the parsed tree, estimated at twice the text as {@link ApiResponse} does. */
+  private static long weight(String json) { return 4L * json.length(); }
+
+  private static Object[] compileGPath(String path) {
+    Object[] t = GPATHS.get(path);
+    if (t != null) return t;
+    if (path.isEmpty() || !SIMPLE.matcher(path).matches()) {
+      t = NOT_SIMPLE;
+    } else {
+      List<Object> out = new ArrayList<>();
+      Matcher m = TOKEN.matcher(path);
+      while (m.find()) out.add(m.group(1) != null ? m.group(1) : (Object) Integer.valueOf(m.group(2)));
+      t = out.toArray();
+    }
+    if (GPATHS.size() < MAX_COMPILED) GPATHS.put(path, t);
+    return t;
+  }
+
+  private static Object walk(Object node, Object[] tokens) {
+    for (Object tok : tokens) {
+      if (node == null) return null;
+      if (tok instanceof Integer) {
+        if (!(node instanceof List)) return FALLBACK;
+        List<?> l = (List<?>) node;
+        int i = (Integer) tok;
+        if (i < 0) i += l.size();
+        node = i >= 0 && i < l.size() ? l.get(i) : null;
+      } else {
+        // GPath spreads a property over lists; leave that to the real evaluator
+        if (!(node instanceof Map)) return FALLBACK;
+        node = ((Map<?, ?>) node).get(tok);
+      }
+    }
+    return node;
+  }
+}
@@ -0,0 +1,159 @@
+package com.example.rf.keywords.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SchemaLocation;
+import com.networknt.schema.SpecVersion;
+import com.networknt.schema.ValidationMessage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiled JSON Schemas, cached so repeated validation only walks the document.
+ *
+ * <p>A schema is given as inline JSON, {@code classpath:name} or a file path. Inline schemas are
+ * keyed by the SHA-256 of their text; files by path, size and modification time, so an edited
+ * file is recompiled; classpath resources by name. Files are loaded by URI, so relative
+ * {@code $ref}s resolve against the schema's own location. The draft follows {@code $schema}
+ * and defaults to 2020-12.
+ */
+public final class JsonSchemas {
+  private JsonSchemas() {}
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final int MAX_SCHEMAS = 256;
+  private static final int MAX_REPORTED = 20;
+  private static final Map<SpecVersion.VersionFlag, JsonSchemaFactory> FACTORIES = new EnumMap<>(SpecVersion.VersionFlag.class);
+  private static final Map<String, JsonSchema> SCHEMAS = Collections.synchronizedMap(
+      new LinkedHashMap<>(64, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<String, JsonSchema> e) { return size() > MAX_SCHEMAS; }
+      });
+
+  /** Violations of the document against the schema, in the validator's message form; empty when valid. */
+  public static List<String> validate(JsonNode doc, String schema) {
+    Set<ValidationMessage> msgs = compiled(schema).validate(doc);
+    List<String> out = new ArrayList<>(msgs.size());
+    for (ValidationMessage m : msgs) out.add(m.getMessage());
+    return out;
+  }
+
+  /** Fails with the first violations listed when the document does not match. */
+  public static void assertValid(JsonNode doc, String schema, String what) {
+    List<String> errors = validate(doc, schema);
+    if (errors.isEmpty()) return;
+    StringBuilder sb = new StringBuilder(what).append(" does not match schema (").append(errors.size()).append(" errors):");
+    for (int i = 0; i < Math.min(errors.size(), MAX_REPORTED); i++) sb.append("\n  ").append(errors.get(i));
+    if (errors.size() > MAX_REPORTED) sb.append("\n  ... ").append(errors.size() - MAX_REPORTED).append(" more");
+    throw new AssertionError(sb.toString());
+  }
+
+  public static JsonNode parse(String json) {
+    try {
+      return MAPPER.readTree(json);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Not valid JSON: " + e.getMessage(), e);
+    }
+  }
+
+  public static JsonNode parse(byte[] json) {
+    try {
+      return MAPPER.readTree(json);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Not valid JSON: " + e.getMessage(), e);
+    }
+  }
+
+  public static JsonNode parse(Path file) {
+    try {
+      return MAPPER.readTree(file.toFile());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot read JSON from " + file + ": " + e.getMessage(), e);
+    }
+  }
+
+  /** Compiled schema for an inline, classpath or file source; compiled at most once per key. */
+  public static JsonSchema compiled(String schema) {
+    String key = key(schema);
+    JsonSchema s = SCHEMAS.get(key);
+    if (s == null) {
+      s = compile(schema);
+      SCHEMAS.put(key, s);
+    }
+    return s;
+  }
+
+  public static int cached() { return SCHEMAS.size(); }
+
+  public static void clear() { SCHEMAS.clear(); }
+
+  private static String key(String schema) {
+    String s = schema.trim();
+    if (isInline(s)) {
+      return "sha256:" + HexFormat.of().formatHex(ApiResponse.sha256Digest().digest(s.getBytes(StandardCharsets.UTF_8)));
+    }
+    if (s.startsWith("classpath:")) return s;
+    Path p = Path.of(s).toAbsolutePath().normalize();
+    try {
+      return "file:" + p + ":" + Files.size(p) + ":" + Files.getLastModifiedTime(p).toMillis();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot read schema " + s + ": " + e.getMessage(), e);
+    }
+  }
+
+  private static JsonSchema compile(String schema) {
+    String s = schema.trim();
+    if (isInline(s)) {
+      JsonNode node = parse(s);
+      return factory(node).getSchema(node);
+    }
+    if (s.startsWith("classpath:")) {
+      String resource = s.substring("classpath:".length());
+      URL url = JsonSchemas.class.getClassLoader().getResource(resource.startsWith("/") ? resource.substring(1) : resource);
+      if (url == null) throw new IllegalArgumentException("Schema resource not found on classpath: " + resource);
+      try (InputStream in = url.openStream()) {
+        JsonNode node = MAPPER.readTree(in);
+        return factory(node).getSchema(node);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot read schema " + s + ": " + e.getMessage(), e);
+      }
+    }
+    Path p = Path.of(s).toAbsolutePath().normalize();
+    JsonNode node = parse(p);
+    return factory(node).getSchema(SchemaLocation.of(p.toUri().toString()), node);
+  }
+
+  private static boolean isInline(String s) {
+    return s.startsWith("{") || "true".equals(s) || "false".equals(s);
+  }
+
+  private static JsonSchemaFactory factory(JsonNode schema) {
+    SpecVersion.VersionFlag v = version(schema.path("$schema").asText(""));
+    synchronized (FACTORIES) {
+      return FACTORIES.computeIfAbsent(v, JsonSchemaFactory::getInstance);
+    }
+  }
+
+  private static SpecVersion.VersionFlag version(String uri) {
+    if (uri.contains("draft-04")) return SpecVersion.VersionFlag.V4;
+    if (uri.contains("draft-06")) return SpecVersion.VersionFlag.V6;
+    if (uri.contains("draft-07")) return SpecVersion.VersionFlag.V7;
+    if (uri.contains("2019-09")) return SpecVersion.VersionFlag.V201909;
+    return SpecVersion.VersionFlag.V202012;
+  }
+}
@@ -0,0 +1,278 @@
+package com.example.rf.keywords.core;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.core.util.Separators;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * File-to-file JSON work on the Jackson streaming API; nothing here holds a whole document.
+ *
+ * <p>A file of records is either one top-level array, whose elements are the records, or JSON
+ * Lines (any sequence of root values, arrays included). A file that starts with an array gets a
+ * token-only pass to tell the two apart. Only one record at a time is bound to a tree.
+ * Paths are plain dotted/indexed paths such as {@code $.user.tags[0]}; filters are
+ * {@code path=value}, {@code path!=value} or {@code path} (present and not null); a quoted value
+ * may contain commas.
+ */
+public final class JsonStream {
+  private JsonStream() {}
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final JsonFactory FACTORY = MAPPER.getFactory();
+  private static final Pattern TOKEN = Pattern.compile("([^.\\[\\]]+)|\\[(-?\\d+)]");
+
+  /** Called once per record; return false to stop. */
+  @FunctionalInterface
+  public interface RecordVisitor {
+    boolean visit(JsonNode record) throws IOException;
+  }
+
+  /** Visits every record in order; returns how many were read. */
+  public static long records(Path in, RecordVisitor visitor) {
+    long n = 0;
+    try (JsonParser p = FACTORY.createParser(in.toFile())) {
+      JsonToken t = p.nextToken();
+      if (t == JsonToken.START_ARRAY && singleArray(in)) t = p.nextToken();
+      while (t != null && t != JsonToken.END_ARRAY) {
+        JsonNode record = MAPPER.readTree(p);
+        n++;
+        if (!visitor.visit(record)) break;
+        t = p.nextToken();
+      }
+      return n;
+    } catch (IOException e) { throw new UncheckedIOException("Cannot read JSON records from " + in + ": " + e.getMessage(), e); }
+  }
+
+  /** True when the file holds one top-level array and nothing after it. */
+  private static boolean singleArray(Path in) throws IOException {
+    try (JsonParser p = FACTORY.createParser(in.toFile())) {
+      p.nextToken();
+      p.skipChildren();
+      return p.nextToken() == null;
+    }
+  }
+
+  /** Counts records matching every filter. */
+  public static Map<String, Long> count(Path in, List<String> filters) {
+    Filter f = new Filter(filters);
+    long[] matched = {0};
+    long read = records(in, r -> {
+      if (f.test(r)) matched[0]++;
+      return true;
+    });
+    return counts("records", read, "matched", matched[0]);
+  }
+
+  /** Writes records matching every filter to out as JSON Lines. */
+  public static Map<String, Long> filter(Path in, Path out, List<String> filters) {
+    Filter f = new Filter(filters);
+    long[] written = {0};
+    long read;
+    try (JsonGenerator g = lines(out)) {
+      read = records(in, r -> {
+        if (!f.test(r)) return true;
+        line(g, r);
+        written[0]++;
+        return true;
+      });
+    } catch (IOException e) { throw new UncheckedIOException(e); }
+    return counts("records", read, "written", written[0]);
+  }
+
+  /** Writes the value at path of every record to out as JSON Lines; distinct keeps first occurrences. */
+  public static Map<String, Long> extract(Path in, String path, Path out, boolean distinct) {
+    Object[] tokens = compile(path);
+    Set<String> seen = distinct ? new HashSet<>() : null;
+    long[] found = {0}, written = {0};
+    long read;
+    try (JsonGenerator g = lines(out)) {
+      read = records(in, r -> {
+        JsonNode v = at(r, tokens);
+        if (v == null) return true;
+        found[0]++;
+        if (seen != null && !seen.add(v.toString())) return true;
+        line(g, v);
+        written[0]++;
+        return true;
+      });
+    } catch (IOException e) { throw new UncheckedIOException(e); }
+    Map<String, Long> m = counts("records", read, "found", found[0]);
+    m.put("missing", read - found[0]);
+    m.put("written", written[0]);
+    return m;
+  }
+
+  /** Re-indents (or compacts) every root value of in into out, token by token. */
+  public static long pretty(Path in, Path out, boolean compact) {
+    long n = 0;
+    try (JsonParser p = FACTORY.createParser(in.toFile()); JsonGenerator g = generator(out)) {
+      g.setPrettyPrinter(compact ? new MinimalPrettyPrinter("\n") : new DefaultPrettyPrinter(Separators.createDefaultInstance().withRootSeparator("\n")));
+      while (p.nextToken() != null) {
+        g.copyCurrentStructure(p);
+        n++;
+      }
+      return n;
+    } catch (IOException e) { throw new UncheckedIOException("Cannot reformat " + in + ": " + e.getMessage(), e); }
+  }
+
+  /**
+   * Deep merge: base is streamed, overlay is read as a tree (it is the small side, e.g. a
+   * patch). Objects merge key by key, anything else in overlay replaces the base value, and
+   * overlay keys missing from base are appended to their object.
+   */
+  public static void merge(Path base, Path overlay, Path out) {
+    try (JsonParser p = FACTORY.createParser(base.toFile()); JsonGenerator g = generator(out)) {
+      JsonNode patch = MAPPER.readTree(overlay.toFile());
+      if (p.nextToken() == null) {
+        if (patch != null) MAPPER.writeTree(g, patch);
+        return;
+      }
+      merge(p, patch, g);
+    } catch (IOException e) { throw new UncheckedIOException("Cannot merge " + base + " with " + overlay + ": " + e.getMessage(), e); }
+  }
+
+  /** Copies the value at p's current token to g with patch applied. */
+  private static void merge(JsonParser p, JsonNode patch, JsonGenerator g) throws IOException {
+    if (patch == null || patch.isMissingNode()) {
+      g.copyCurrentStructure(p);
+      return;
+    }
+    if (p.currentToken() != JsonToken.START_OBJECT || !patch.isObject()) {
+      p.skipChildren();
+      MAPPER.writeTree(g, patch);
+      return;
+    }
+    g.writeStartObject();
+    Set<String> done = new HashSet<>();
+    while (p.nextToken() == JsonToken.FIELD_NAME) {
+      String name = p.currentName();
+      p.nextToken();
+      g.writeFieldName(name);
+      merge(p, patch.get(name), g);
+      done.add(name);
+    }
+    for (Map.Entry<String, JsonNode> e : patch.properties()) {
+      if (done.contains(e.getKey())) continue;
+      g.writeFieldName(e.getKey());
+      MAPPER.writeTree(g, e.getValue());
+    }
+    g.writeEndObject();
+  }
+
+  private static JsonGenerator generator(Path out) throws IOException {
+    if (out.getParent()!=null) Files.createDirectories(out.getParent());
+    return FACTORY.createGenerator(out.toFile(), JsonEncoding.UTF8);
+  }
+
+  private static JsonGenerator lines(Path out) throws IOException {
+    JsonGenerator g = generator(out);
+    g.setPrettyPrinter(new MinimalPrettyPrinter(""));
+    return g;
+  }
+
+  private static void line(JsonGenerator g, JsonNode v) throws IOException {
+    MAPPER.writeTree(g, v);
+    g.writeRaw('\n');
+  }
+
+  private static Map<String, Long> counts(String k1, long v1, String k2, long v2) {
+    Map<String, Long> m = new LinkedHashMap<>();
+    m.put(k1, v1);
+    m.put(k2, v2);
+    return m;
+  }
+
+  private static Object[] compile(String path) {
+    String s = path.trim();
+    if (s.startsWith("$")) s = s.substring(1);
+    if (s.startsWith(".")) s = s.substring(1);
+    List<Object> out = new ArrayList<>();
+    Matcher m = TOKEN.matcher(s);
+    int end = 0;
+    while (m.find()) {
+      if (m.start() != end && !(m.start() == end + 1 && s.charAt(end) == '.')) break;
+      out.add(m.group(1) != null ? m.group(1) : (Object) Integer.valueOf(m.group(2)));
+      end = m.end();
+    }
+    if (end != s.length()) throw new IllegalArgumentException("Only dotted/indexed paths like $.a.b[0] are supported. Got: " + path);
+    return out.toArray();
+  }
+
+  private static JsonNode at(JsonNode node, Object[] tokens) {
+    for (Object tok : tokens) {
+      if (node == null) return null;
+      if (tok instanceof Integer) {
+        int i = (Integer) tok;
+        if (i < 0) i += node.size();
+        node = node.isArray() ? node.get(i) : null;
+      } else {
+        node = node.isObject() ? node.get((String) tok) : null;
+      }
+    }
+    return node;
+  }
+
+  private static final class Filter {
+    final List<Object[]> paths = new ArrayList<>();
+    final List<String> values = new ArrayList<>();
+    final List<Boolean> negate = new ArrayList<>();
+
+    Filter(List<String> filters) {
+      for (String f : filters) {
+        int ne = f.indexOf("!="), eq = f.indexOf('=');
+        if (ne >= 0 && ne < eq) {
+          add(f.substring(0, ne), f.substring(ne + 2), true);
+        } else if (eq >= 0) {
+          add(f.substring(0, eq), f.substring(eq + 1), false);
+        } else {
+          add(f, null, false);
+        }
+      }
+    }
+
+    private void add(String path, String value, boolean not) {
+      paths.add(compile(path));
+      values.add(value == null ? null : unquote(value.trim()));
+      negate.add(not);
+    }
+
+    /** 'a,b' or "a,b" keeps a comma inside one filter; the quotes are not part of the value. */
+    private static String unquote(String v) {
+      if (v.length() >= 2 && (v.charAt(0) == '\'' || v.charAt(0) == '"') && v.charAt(v.length() - 1) == v.charAt(0)) {
+        return v.substring(1, v.length() - 1);
+      }
+      return v;
+    }
+
+    boolean test(JsonNode record) {
+      for (int i = 0; i < paths.size(); i++) {
+        JsonNode v = at(record, paths.get(i));
+        boolean hit;
+        if (values.get(i) == null) hit = v != null && !v.isNull();
+        else hit = v != null && values.get(i).equals(v.isValueNode() ? v.asText() : v.toString());
+        if (hit == negate.get(i)) return false;
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package com.example.rf.keywords.core;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide keyword metrics rendered in the Prometheus text format.
+ * Timers are created once per (library, keyword); recording only touches adders, so the
+ * hot path never allocates or locks.
+ */
+public final class KeywordMetrics {
+  private KeywordMetrics() {}
+
+  /** Upper bounds in seconds for the latency histogram; the last bucket is +Inf. */
+  private static final double[] BUCKETS_SEC = {
+      0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30 };
+  private static final long[] BUCKETS_NANOS = new long[BUCKETS_SEC.length];
+  private static final String[] BUCKETS_LE = new String[BUCKETS_SEC.length + 1];
+  static {
+    for (int i = 0; i < BUCKETS_SEC.length; i++) {
+      BUCKETS_NANOS[i] = (long) (BUCKETS_SEC[i] * 1e9);
+      BUCKETS_LE[i] = BigDecimal.valueOf(BUCKETS_SEC[i]).toPlainString();
+    }
+    BUCKETS_LE[BUCKETS_SEC.length] = "+Inf";
+  }
+
+  private static final Map<String, Timer> TIMERS = new ConcurrentSkipListMap<>();
+  private static final Map<String, Gauge> GAUGES = new ConcurrentHashMap<>();
+
+  /** Get or create the timer for a keyword; call once at wrap time, not per invocation. */
+  public static Timer timer(String library, String keyword) {
+    return TIMERS.computeIfAbsent(library + '\u0000' + keyword, k -> new Timer(library, keyword));
+  }
+
+  /**
+   * Register (or replace) a gauge sampled at scrape time. Each map entry becomes one sample
+   * labelled {@code label="<key>"}; an empty key emits an unlabelled sample.
+   */
+  public static void gauge(String name, String help, String label, Supplier<Map<String, ? extends Number>> values) {
+    GAUGES.put(name, new Gauge(name, help, label, values));
+  }
+
+  public static void reset() { TIMERS.values().forEach(Timer::reset); }
+
+  public static final class Timer {
+    final String library;
+    final String keyword;
+    final LongAdder calls = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final LongAdder sumNanos = new LongAdder();
+    final AtomicInteger inFlight = new AtomicInteger();
+    final AtomicLong maxNanos = new AtomicLong();
+    final LongAdder[] buckets = new LongAdder[BUCKETS_NANOS.length + 1];
+
+    private Timer(String library, String keyword) {
+      this.library = library;
+      this.keyword = keyword;
+      for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+    }
+
+    /** Mark a call as started; returns the start timestamp to pass to {@link #stop}. */
+    public long start() {
+      inFlight.incrementAndGet();
+      return System.nanoTime();
+    }
+
+    public void stop(long startNanos, boolean failed) {
+      long d = System.nanoTime() - startNanos;
+      inFlight.decrementAndGet();
+      calls.increment();
+      if (failed) errors.increment();
+      sumNanos.add(d);
+      int i = 0;
+      while (i < BUCKETS_NANOS.length && d > BUCKETS_NANOS[i]) i++;
+      buckets[i].increment();
+      long m;
+      while (d > (m = maxNanos.get()) && !maxNanos.compareAndSet(m, d)) { /* retry */ }
+    }
+
+    void reset() {
+      calls.reset(); errors.reset(); sumNanos.reset(); maxNanos.set(0);
+      for (LongAdder b : buckets) b.reset();
+    }
+  }
+
+  private static final class Gauge {
+    final String name, help, label;
+    final Supplier<Map<String, ? extends Number>> values;
+    Gauge(String name, String help, String label, Supplier<Map<String, ? extends Number>> values) {
+      this.name = name; this.help = help; this.label = label; this.values = values;
+    }
+  }
+
+  // ---------- Rendering ----------
+
+  /** Prometheus text exposition format (version 0.0.4). */
+  public static String render() {
+    StringBuilder sb = new StringBuilder(4096);
+
+    header(sb, "rf_keyword_calls_total", "Completed keyword invocations.", "counter");
+    for (Timer t : TIMERS.values()) sample(sb, "rf_keyword_calls_total", t, null, t.calls.sum());
+    header(sb, "rf_keyword_errors_total", "Keyword invocations that raised.", "counter");
+    for (Timer t : TIMERS.values()) sample(sb, "rf_keyword_errors_total", t, null, t.errors.sum());
+    header(sb, "rf_keyword_in_flight", "Keyword invocations currently running.", "gauge");
+    for (Timer t : TIMERS.values()) sample(sb, "rf_keyword_in_flight", t, null, t.inFlight.get());
+    header(sb, "rf_keyword_max_seconds", "Slowest keyword invocation since start or reset.", "gauge");
+    for (Timer t : TIMERS.values()) sample(sb, "rf_keyword_max_seconds", t, null, t.maxNanos.get() / 1e9);
+
+    header(sb, "rf_keyword_duration_seconds", "Keyword latency.", "histogram");
+    for (Timer t : TIMERS.values()) {
+      long cum = 0;
+      for (int i = 0; i < t.buckets.length; i++) {
+        cum += t.buckets[i].sum();
+        sample(sb, "rf_keyword_duration_seconds_bucket", t, BUCKETS_LE[i], cum);
+      }
+      sample(sb, "rf_keyword_duration_seconds_sum", t, null, t.sumNanos.sum() / 1e9);
+      sample(sb, "rf_keyword_duration_seconds_count", t, null, cum);
+    }
+
+    for (Gauge g : GAUGES.values()) {
+      Map<String, ? extends Number> vals;
+      try { vals = g.values.get(); } catch (RuntimeException e) { continue; }
+      if (vals == null) continue;
+      header(sb, g.name, g.help, "gauge");
+      vals.forEach((k, v) -> {
+        sb.append(g.name);
+        if (k != null && !k.isEmpty()) sb.append('{').append(g.label).append("=\"").append(escape(k)).append("\"}");
+        sb.append(' ').append(v).append('\n');
+      });
+    }
+    return sb.toString();
+  }
+
+  private static void header(StringBuilder sb, String name, String help, String type) {
+    sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void sample(StringBuilder sb, String name, Timer t, String le, Number v) {
+    sb.append(name).append("{library=\"").append(escape(t.library))
+      .append("\",keyword=\"").append(escape(t.keyword)).append('"');
+    if (le != null) sb.append(",le=\"").append(le).append('"');
+    sb.append("} ").append(v).append('\n');
+  }
+
+  private static String escape(String s) {
+    return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+}
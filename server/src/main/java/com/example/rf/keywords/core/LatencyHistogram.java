@@ -0,0 +1,66 @@
+package com.example.rf.keywords.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HDR-style log-linear latency histogram in microseconds: each power of two is split into
+ * 64 linear sub-buckets, so any recorded value is reported within ~1.6%.
+ * Recording is lock-free and allocation-free, safe to call from many threads.
+ */
+public final class LatencyHistogram {
+  private static final int LINEAR = 128;
+  private static final int HALF = LINEAR / 2;
+
+  private final AtomicLongArray counts = new AtomicLongArray(LINEAR + 63 * HALF);
+  private final LongAdder total = new LongAdder();
+  private final LongAdder sumMicros = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  public void recordNanos(long nanos) { recordMicros(Math.max(0, nanos / 1_000)); }
+
+  public void recordMicros(long micros) {
+    counts.incrementAndGet(index(micros));
+    total.increment();
+    sumMicros.add(micros);
+    long m;
+    while (micros > (m = max.get()) && !max.compareAndSet(m, micros)) { /* retry */ }
+  }
+
+  public long count() { return total.sum(); }
+
+  public double meanMillis() {
+    long n = total.sum();
+    return n == 0 ? 0 : sumMicros.sum() / 1000.0 / n;
+  }
+
+  public double maxMillis() { return max.get() / 1000.0; }
+
+  /** Value at the given percentile (0–100) in milliseconds; 0 when empty. */
+  public double percentileMillis(double percentile) {
+    long n = total.sum();
+    if (n == 0) return 0;
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+    long seen = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      seen += counts.get(i);
+      if (seen >= rank) return Math.min(highestEquivalent(i), max.get()) / 1000.0;
+    }
+    return maxMillis();
+  }
+
+  /** Values below 128 are exact; above, each octave keeps its top 7 bits (64 linear steps). */
+  private static int index(long v) {
+    if (v < LINEAR) return (int) v;
+    int shift = 63 - Long.numberOfLeadingZeros(v) - 6;
+    return LINEAR + (shift - 1) * HALF + (int) (v >>> shift) - HALF;
+  }
+
+  private static long highestEquivalent(int index) {
+    if (index < LINEAR) return index;
+    int shift = (index - LINEAR) / HALF + 1;
+    long top = (index - LINEAR) % HALF + HALF;
+    return ((top + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,121 @@
+package com.example.rf.keywords.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a request callable N times from a fixed worker pool, either closed-loop (as fast as
+ * {@code concurrency} allows) or open-loop at a target rate. In rate mode latency is measured
+ * from each request's scheduled start, so a stalled server is not hidden by workers falling
+ * behind (coordinated omission).
+ */
+public final class LoadRunner {
+  private LoadRunner() {}
+
+  /** @param call performs one request and returns its HTTP status */
+  public static Result run(int requests, int concurrency, double ratePerSec, Callable<Integer> call) {
+    if (requests <= 0) throw new IllegalArgumentException("requests must be > 0");
+    if (concurrency <= 0) throw new IllegalArgumentException("concurrency must be > 0");
+    int workers = Math.min(concurrency, requests);
+    long intervalNanos = ratePerSec > 0 ? (long) (1e9 / ratePerSec) : 0;
+
+    Result res = new Result(requests);
+    AtomicInteger next = new AtomicInteger();
+    AtomicInteger threadNo = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+      Thread t = new Thread(r, "rf-load-" + threadNo.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+
+    long start = System.nanoTime();
+    List<Callable<Void>> tasks = new ArrayList<>(workers);
+    for (int w = 0; w < workers; w++) {
+      tasks.add(() -> {
+        int i;
+        while ((i = next.getAndIncrement()) < requests) {
+          long t0 = System.nanoTime();
+          if (intervalNanos > 0) {
+            long scheduled = start + i * intervalNanos;
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+            t0 = scheduled;
+          }
+          try {
+            int status = call.call();
+            res.statuses.computeIfAbsent(status, k -> new LongAdder()).increment();
+          } catch (Exception e) {
+            res.failures.computeIfAbsent(e.getClass().getSimpleName(), k -> new LongAdder()).increment();
+          } finally {
+            res.latency.recordNanos(System.nanoTime() - t0);
+          }
+        }
+        return null;
+      });
+    }
+    try {
+      pool.invokeAll(tasks);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Load run interrupted", e);
+    } finally {
+      pool.shutdownNow();
+    }
+    res.elapsedNanos = System.nanoTime() - start;
+    return res;
+  }
+
+  public static final class Result {
+    final int requests;
+    final LatencyHistogram latency = new LatencyHistogram();
+    final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    long elapsedNanos;
+
+    Result(int requests) { this.requests = requests; }
+
+    public LatencyHistogram latency() { return latency; }
+
+    /** Responses with status >= 400 plus requests that threw. */
+    public long errors() {
+      long n = 0;
+      for (var e : statuses.entrySet()) if (e.getKey() >= 400) n += e.getValue().sum();
+      for (LongAdder a : failures.values()) n += a.sum();
+      return n;
+    }
+
+    public double errorRatePercent() { return requests == 0 ? 0 : errors() * 100.0 / requests; }
+
+    public double throughput() { return elapsedNanos == 0 ? 0 : requests / (elapsedNanos / 1e9); }
+
+    /** Robot-friendly summary: latencies in ms, throughput in requests/s. */
+    public Map<String, Object> toMap() {
+      Map<String, Object> m = new LinkedHashMap<>();
+      m.put("requests", requests);
+      m.put("errors", (int) errors());
+      m.put("errorRatePct", errorRatePercent());
+      m.put("durationSec", elapsedNanos / 1e9);
+      m.put("throughput", throughput());
+      m.put("p50Ms", latency.percentileMillis(50));
+      m.put("p90Ms", latency.percentileMillis(90));
+      m.put("p99Ms", latency.percentileMillis(99));
+      m.put("maxMs", latency.maxMillis());
+      m.put("meanMs", latency.meanMillis());
+      Map<String, Object> byStatus = new TreeMap<>();
+      statuses.forEach((k, v) -> byStatus.put(String.valueOf(k), (int) v.sum()));
+      failures.forEach((k, v) -> byStatus.put(k, (int) v.sum()));
+      m.put("statuses", byStatus);
+      return m;
+    }
+  }
+}
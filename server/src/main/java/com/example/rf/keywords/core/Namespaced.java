@@ -0,0 +1,22 @@
+package com.example.rf.keywords.core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/** One instance of T per {@link CallerContext} namespace, created on first use. */
+public final class Namespaced<T> {
+  private final ConcurrentMap<String, T> byNs = new ConcurrentHashMap<>();
+  private final Supplier<T> factory;
+
+  public Namespaced(Supplier<T> factory) { this.factory = factory; }
+
+  /** State of the calling namespace. */
+  public T current() { return byNs.computeIfAbsent(CallerContext.namespace(), k -> factory.get()); }
+
+  /** State of the default (no namespace) caller, or null if it never used this. */
+  public T shared() { return byNs.get(""); }
+
+  /** Drop the calling namespace's state; returns it so the caller can release resources. */
+  public T remove() { return byNs.remove(CallerContext.namespace()); }
+}
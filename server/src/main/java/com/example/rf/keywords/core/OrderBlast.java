@@ -0,0 +1,168 @@
+package com.example.rf.keywords.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bookkeeping for one burst of orders whose ClOrdIDs are {@code prefix + (base + i)}: the
+ * order index is parsed back out of the ID, so correlating an ExecutionReport is an array
+ * access rather than a map lookup. Latency runs from the moment each order was handed to the
+ * session to the receipt of its first report (ack) and of the report that filled it.
+ */
+public final class OrderBlast {
+  private static final int ACKED = 1, FILLED = 2, REJECTED = 4;
+
+  /** What the sender waits for before reporting. */
+  public enum Until {
+    NONE, ACK, FILL;
+
+    public static Until of(String s) {
+      for (Until u : values()) if (u.name().equalsIgnoreCase(s.trim())) return u;
+      throw new IllegalArgumentException("until must be ack, fill or none. Got: " + s);
+    }
+  }
+
+  private final String prefix;
+  private final long base;
+  private final int count;
+  private final AtomicLongArray sentAt;
+  private final AtomicIntegerArray state;
+  private final LatencyHistogram ack = new LatencyHistogram();
+  private final LatencyHistogram fill = new LatencyHistogram();
+  private final LongAdder acked = new LongAdder(), filled = new LongAdder(), rejected = new LongAdder();
+  private final LongAdder unsent = new LongAdder();
+  private volatile long firstSend, lastSend, lastReport;
+
+  public OrderBlast(String prefix, long base, int count) {
+    if (count <= 0) throw new IllegalArgumentException("count must be > 0");
+    this.prefix = prefix;
+    this.base = base;
+    this.count = count;
+    this.sentAt = new AtomicLongArray(count);
+    this.state = new AtomicIntegerArray(count);
+  }
+
+  public String clOrdId(int i) { return prefix + (base + i); }
+
+  /**
+   * Hands out orders 0..count-1 to {@code send} at {@code ratePerSec} (0 = back to back).
+   * {@code send} returns false when the session refused the message.
+   */
+  public void run(double ratePerSec, Sender send) {
+    long interval = ratePerSec > 0 ? (long) (1e9 / ratePerSec) : 0;
+    long start = System.nanoTime();
+    firstSend = start;
+    for (int i = 0; i < count; i++) {
+      if (interval > 0) {
+        long wait, scheduled = start + i * interval;
+        while ((wait = scheduled - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+      }
+      sentAt.set(i, System.nanoTime());
+      if (!send.send(i, clOrdId(i))) {
+        sentAt.set(i, 0);
+        unsent.increment();
+      }
+    }
+    lastSend = System.nanoTime();
+  }
+
+  public interface Sender {
+    boolean send(int index, String clOrdId);
+  }
+
+  /**
+   * Records an ExecutionReport received at {@code nanos}. Returns false when the ClOrdID is
+   * not one of this blast's, so the caller can route the message elsewhere.
+   */
+  public boolean onExecutionReport(String clOrdId, char execType, char ordStatus, long nanos) {
+    int i = index(clOrdId);
+    if (i < 0) return false;
+    long sent = sentAt.get(i);
+    if (sent == 0) return true; // report for an order still being sent or refused; ignore
+    if (setFlag(i, ACKED)) {
+      ack.recordNanos(nanos - sent);
+      acked.increment();
+    }
+    if (execType == '8' || ordStatus == '8') {
+      if (setFlag(i, REJECTED)) rejected.increment();
+    } else if (ordStatus == '2' && setFlag(i, FILLED)) {
+      fill.recordNanos(nanos - sent);
+      filled.increment();
+    }
+    lastReport = nanos;
+    return true;
+  }
+
+  /** Waits until every sent order has been acked (or filled / rejected), or the timeout passes. */
+  public boolean await(Until until, long timeoutNanos) {
+    if (until == Until.NONE) return true;
+    long deadline = System.nanoTime() + timeoutNanos;
+    while (!done(until)) {
+      if (System.nanoTime() - deadline >= 0) return false;
+      LockSupport.parkNanos(1_000_000);
+    }
+    return true;
+  }
+
+  private boolean done(Until until) {
+    long sent = count - unsent.sum();
+    long settled = until == Until.ACK ? acked.sum() : filled.sum() + rejected.sum();
+    return settled >= sent;
+  }
+
+  private int index(String clOrdId) {
+    if (clOrdId == null || !clOrdId.startsWith(prefix)) return -1;
+    long n = 0;
+    for (int k = prefix.length(); k < clOrdId.length(); k++) {
+      char c = clOrdId.charAt(k);
+      if (c < '0' || c > '9') return -1;
+      n = n * 10 + (c - '0');
+    }
+    long i = n - base;
+    return i >= 0 && i < count ? (int) i : -1;
+  }
+
+  private boolean setFlag(int i, int flag) {
+    int s;
+    do {
+      s = state.get(i);
+      if ((s & flag) != 0) return false;
+    } while (!state.compareAndSet(i, s, s | flag));
+    return true;
+  }
+
+  /** Robot-friendly summary: latencies in ms, rates per second. */
+  public Map<String, Object> toMap() {
+    long sent = count - unsent.sum();
+    double sendSec = (lastSend - firstSend) / 1e9;
+    double durationSec = (Math.max(lastSend, lastReport) - firstSend) / 1e9;
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("orders", count);
+    m.put("sent", (int) sent);
+    m.put("acked", (int) acked.sum());
+    m.put("filled", (int) filled.sum());
+    m.put("rejected", (int) rejected.sum());
+    m.put("unanswered", (int) (sent - acked.sum()));
+    m.put("firstClOrdId", clOrdId(0));
+    m.put("lastClOrdId", clOrdId(count - 1));
+    m.put("sendSec", sendSec);
+    m.put("sendRate", sendSec > 0 ? sent / sendSec : 0);
+    m.put("durationSec", durationSec);
+    m.put("throughput", durationSec > 0 ? acked.sum() / durationSec : 0);
+    put(m, "ack", ack);
+    put(m, "fill", fill);
+    return m;
+  }
+
+  private static void put(Map<String, Object> m, String name, LatencyHistogram h) {
+    m.put(name + "P50Ms", h.percentileMillis(50));
+    m.put(name + "P90Ms", h.percentileMillis(90));
+    m.put(name + "P99Ms", h.percentileMillis(99));
+    m.put(name + "MaxMs", h.maxMillis());
+    m.put(name + "MeanMs", h.meanMillis());
+  }
+}
@@ -0,0 +1,285 @@
+package com.example.rf.keywords.core;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reconciles two result sets (possibly in different databases) by integer key range.
+ *
+ * <p>The key span is cut into chunks of about {@code chunkRows} rows. For each chunk both
+ * sides are streamed and folded into an order-independent checksum (row count plus sum and
+ * xor of 64-bit row hashes), so the databases do not need to sort. Chunks run in parallel
+ * on pool connections. Only chunks whose checksums differ are read again and diffed row by row.
+ * Values are compared in a canonical text form, so {@code 1.50} (DECIMAL) equals {@code 1.5}
+ * (DOUBLE) across engines.
+ */
+public final class QueryCompare {
+  private QueryCompare() {}
+
+  private static final int MAX_CHUNKS = 100_000;
+
+  public static Map<String, Object> compare(DataSource left, String leftQuery, DataSource right, String rightQuery,
+                                            String keyColumn, int chunkRows, int parallelism, int maxDiffs) {
+    long t0 = System.nanoTime();
+    String lq = asSource(leftQuery), rq = asSource(rightQuery);
+    long[] ls = span(left, lq, keyColumn), rs = span(right, rq, keyColumn);
+    Result res = new Result(maxDiffs);
+    res.leftRows = ls[2];
+    res.rightRows = rs[2];
+
+    if (ls[2] > 0 || rs[2] > 0) {
+      long min = Math.min(ls[2] > 0 ? ls[0] : Long.MAX_VALUE, rs[2] > 0 ? rs[0] : Long.MAX_VALUE);
+      long max = Math.max(ls[2] > 0 ? ls[1] : Long.MIN_VALUE, rs[2] > 0 ? rs[1] : Long.MIN_VALUE);
+      double span = (double) max - min + 1;
+      double rows = Math.max(1, Math.max(ls[2], rs[2]));
+      long width = (long) Math.ceil(Math.max(span * chunkRows / rows, span / MAX_CHUNKS));
+      String lSql = chunkSql(lq, keyColumn), rSql = chunkSql(rq, keyColumn);
+
+      ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, parallelism), daemon());
+      try {
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (long lo = min; ; lo += width) {
+          long from = lo, to = lo + width > lo ? lo + width : Long.MAX_VALUE; // [from, to), overflow-safe
+          res.chunks++;
+          tasks.add(CompletableFuture.runAsync(() -> compareChunk(left, lSql, right, rSql, keyColumn, from, to, res), pool));
+          if (to > max || to == Long.MAX_VALUE) break;
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+      } catch (CompletionException e) {
+        Throwable c = e.getCause();
+        throw c instanceof RuntimeException ? (RuntimeException) c : new RuntimeException(c);
+      } finally {
+        pool.shutdownNow();
+      }
+    }
+
+    Map<String, Object> out = new LinkedHashMap<>();
+    out.put("equal", res.mismatchedChunks.get() == 0);
+    out.put("leftRows", res.leftRows);
+    out.put("rightRows", res.rightRows);
+    out.put("chunks", res.chunks);
+    out.put("mismatchedChunks", res.mismatchedChunks.get());
+    out.put("onlyLeftCount", res.onlyLeft.get());
+    out.put("onlyRightCount", res.onlyRight.get());
+    out.put("differentCount", res.different.get());
+    synchronized (res) {
+      out.put("onlyLeft", new ArrayList<>(res.onlyLeftKeys.keySet()));
+      out.put("onlyRight", new ArrayList<>(res.onlyRightKeys.keySet()));
+      out.put("different", new ArrayList<>(res.diffs.values()));
+    }
+    out.put("elapsedMs", (System.nanoTime() - t0) / 1_000_000L);
+    return out;
+  }
+
+  // ---------- Internals ----------
+
+  private static final class Result {
+    final int maxDiffs;
+    long leftRows, rightRows, chunks;
+    final AtomicInteger mismatchedChunks = new AtomicInteger();
+    final AtomicLong onlyLeft = new AtomicLong(), onlyRight = new AtomicLong(), different = new AtomicLong();
+    // sorted by key, trimmed to maxDiffs entries each
+    final TreeMap<Long, Boolean> onlyLeftKeys = new TreeMap<>(), onlyRightKeys = new TreeMap<>();
+    final TreeMap<Long, Map<String, Object>> diffs = new TreeMap<>();
+    Result(int maxDiffs) { this.maxDiffs = maxDiffs; }
+
+    synchronized <V> void keep(TreeMap<Long, V> m, long key, V v) {
+      m.put(key, v);
+      if (m.size() > maxDiffs) m.pollLastEntry();
+    }
+  }
+
+  /**
+   * FROM clause for a table name or a query. Tables are used directly so the key range hits
+   * their index even on engines that do not push predicates into derived tables.
+   */
+  private static String asSource(String q) {
+    String s = q.trim();
+    while (s.endsWith(";")) s = s.substring(0, s.length() - 1).trim();
+    return s.chars().anyMatch(Character::isWhitespace) ? "(" + s + ") rf_cmp" : s;
+  }
+
+  private static String chunkSql(String from, String key) {
+    return "SELECT * FROM " + from + " WHERE " + key + " >= ? AND " + key + " < ?";
+  }
+
+  /** min, max and count of the key; rejects keys that are not integers. */
+  private static long[] span(DataSource ds, String from, String key) {
+    String sql = "SELECT MIN(" + key + "), MAX(" + key + "), COUNT(*) FROM " + from;
+    try (Connection c = ds.getConnection();
+         PreparedStatement ps = c.prepareStatement(sql);
+         ResultSet rs = ps.executeQuery()) {
+      rs.next();
+      ResultSetMetaData md = rs.getMetaData();
+      int t = md.getColumnType(1);
+      boolean integral = t == Types.INTEGER || t == Types.BIGINT || t == Types.SMALLINT || t == Types.TINYINT
+          || ((t == Types.DECIMAL || t == Types.NUMERIC) && md.getScale(1) == 0);
+      if (!integral) {
+        throw new IllegalArgumentException("Key column " + key + " must be an integer type to split into ranges; got "
+            + md.getColumnTypeName(1));
+      }
+      return new long[] { rs.getLong(1), rs.getLong(2), rs.getLong(3) };
+    } catch (SQLException e) { throw new RuntimeException(e); }
+  }
+
+  private static void compareChunk(DataSource left, String lSql, DataSource right, String rSql, String key,
+                                   long from, long to, Result res) {
+    long[] l = checksum(left, lSql, from, to), r = checksum(right, rSql, from, to);
+    if (l[0] == r[0] && l[1] == r[1] && l[2] == r[2]) return;
+    res.mismatchedChunks.incrementAndGet();
+
+    Map<Long, String[]> lRows = rows(left, lSql, key, from, to), rRows = rows(right, rSql, key, from, to);
+    for (var e : lRows.entrySet()) {
+      String[] other = rRows.remove(e.getKey());
+      if (other == null) {
+        res.onlyLeft.incrementAndGet();
+        res.keep(res.onlyLeftKeys, e.getKey(), Boolean.TRUE);
+      } else if (!Arrays.equals(e.getValue(), 1, e.getValue().length, other, 1, other.length)) {
+        res.different.incrementAndGet();
+        res.keep(res.diffs, e.getKey(), diff(e.getKey(), e.getValue(), other));
+      }
+    }
+    for (Long k : rRows.keySet()) {
+      res.onlyRight.incrementAndGet();
+      res.keep(res.onlyRightKeys, k, Boolean.TRUE);
+    }
+  }
+
+  /** {count, sum, xor} of row hashes in [from, to). */
+  private static long[] checksum(DataSource ds, String sql, long from, long to) {
+    long count = 0, sum = 0, xor = 0;
+    try (Connection c = ds.getConnection();
+         PreparedStatement ps = c.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+      ps.setLong(1, from);
+      ps.setLong(2, to);
+      ps.setFetchSize(1000);
+      try (ResultSet rs = ps.executeQuery()) {
+        ResultSetMetaData md = rs.getMetaData();
+        int cols = md.getColumnCount();
+        while (rs.next()) {
+          long h = 0xcbf29ce484222325L;
+          for (int i = 1; i <= cols; i++) h = fnv(h, canonical(ResultSetExport.value(rs, md, i)));
+          h = mix(h);
+          count++;
+          sum += h;
+          xor ^= h;
+        }
+      }
+    } catch (SQLException e) { throw new RuntimeException(e); }
+    return new long[] { count, sum, xor };
+  }
+
+  /** Key -> canonical values; slot 0 of each row holds the column labels for reporting. */
+  private static Map<Long, String[]> rows(DataSource ds, String sql, String key, long from, long to) {
+    Map<Long, String[]> out = new LinkedHashMap<>();
+    try (Connection c = ds.getConnection();
+         PreparedStatement ps = c.prepareStatement(sql)) {
+      ps.setLong(1, from);
+      ps.setLong(2, to);
+      try (ResultSet rs = ps.executeQuery()) {
+        ResultSetMetaData md = rs.getMetaData();
+        int cols = md.getColumnCount(), k = keyIndex(md, key);
+        String labels = labels(md);
+        while (rs.next()) {
+          String[] row = new String[cols + 1];
+          row[0] = labels;
+          for (int i = 1; i <= cols; i++) row[i] = canonical(ResultSetExport.value(rs, md, i));
+          out.put(rs.getLong(k), row);
+        }
+      }
+    } catch (SQLException e) { throw new RuntimeException(e); }
+    return out;
+  }
+
+  private static String labels(ResultSetMetaData md) throws SQLException {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 1; i <= md.getColumnCount(); i++) sb.append(i > 1 ? "\u0001" : "").append(md.getColumnLabel(i));
+    return sb.toString();
+  }
+
+  private static int keyIndex(ResultSetMetaData md, String key) throws SQLException {
+    String bare = key.contains(".") ? key.substring(key.lastIndexOf('.') + 1) : key;
+    bare = bare.replace("`", "").replace("\"", "");
+    for (int i = 1; i <= md.getColumnCount(); i++) if (md.getColumnLabel(i).equalsIgnoreCase(bare)) return i;
+    throw new IllegalArgumentException("Key column " + key + " is not in the result columns");
+  }
+
+  private static Map<String, Object> diff(long key, String[] l, String[] r) {
+    Map<String, Object> out = new LinkedHashMap<>();
+    out.put("key", key);
+    Map<String, Object> cols = new LinkedHashMap<>();
+    String[] names = l[0].split("\u0001", -1);
+    for (int i = 1; i < Math.max(l.length, r.length); i++) {
+      String a = i < l.length ? l[i] : null, b = i < r.length ? r[i] : null;
+      if (a == null ? b != null : !a.equals(b)) {
+        cols.put(i - 1 < names.length ? names[i - 1] : "#" + i, List.of(shown(a), shown(b)));
+      }
+    }
+    out.put("columns", cols);
+    return out;
+  }
+
+  private static String shown(String v) { return v == null ? "<missing>" : NULL.equals(v) ? "NULL" : v; }
+
+  private static final String NULL = "\u0000NULL";
+
+  /** Engine-neutral text for a value: numbers without trailing zeros, bytes as hex, NULL distinct from "". */
+  private static String canonical(Object v) {
+    if (v == null) return NULL;
+    if (v instanceof BigDecimal) return ((BigDecimal) v).stripTrailingZeros().toPlainString();
+    if (v instanceof Double || v instanceof Float) {
+      double d = ((Number) v).doubleValue();
+      return Double.isFinite(d) ? BigDecimal.valueOf(d).stripTrailingZeros().toPlainString() : String.valueOf(d);
+    }
+    if (v instanceof Boolean) return ((Boolean) v) ? "1" : "0";
+    if (v instanceof byte[]) return HexFormat.of().formatHex((byte[]) v);
+    return v.toString();
+  }
+
+  private static long fnv(long h, String s) {
+    for (int i = 0; i < s.length(); i++) {
+      h ^= s.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    h ^= 0x1f; // column separator
+    return h * 0x100000001b3L;
+  }
+
+  /** MurmurHash3 finalizer, so near-identical rows spread over the whole 64 bits before summing. */
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    return h ^ (h >>> 33);
+  }
+
+  private static ThreadFactory daemon() {
+    AtomicInteger n = new AtomicInteger();
+    return r -> {
+      Thread t = new Thread(r, "rf-sql-compare-" + n.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    };
+  }
+}
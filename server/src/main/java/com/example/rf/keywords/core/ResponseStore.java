@@ -0,0 +1,281 @@
+package com.example.rf.keywords.core;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded store of response aliases for all caller namespaces.
+ *
+ * <p>Each namespace has its own segment and lock, so pabot workers do not contend; the byte and
+ * entry budgets are global. When the heap held by completed bodies exceeds
+ * {@code rf.responses.maxBytes}, the least recently used bodies are spilled to memory-mapped
+ * temp files ({@code rf.responses.spill=true}) or dropped, starting with the namespace that
+ * grew the store. A body is re-weighed whenever it caches decoded text or a parsed tree.
+ * Spilled aliases keep serving every keyword from disk. {@code rf.responses.maxEntries} caps
+ * the alias count and {@code rf.responses.ttlSec} drops aliases left unread for that long.
+ * Reading a dropped alias fails with the reason instead of falling back to another response.
+ */
+public final class ResponseStore {
+  /** Dropped aliases remembered per namespace for the failure message. */
+  private static final int MAX_DROPPED = 4096;
+
+  private final long maxBytes;
+  private final int maxEntries;
+  private final long ttlNanos;
+  private final Path spillDir;
+
+  private final ConcurrentMap<String, Segment> segments = new ConcurrentHashMap<>();
+  private final AtomicInteger count = new AtomicInteger();
+  private final AtomicLong heapBytes = new AtomicLong(), diskBytes = new AtomicLong();
+  private final LongAdder hits = new LongAdder(), misses = new LongAdder(), spills = new LongAdder(),
+      expired = new LongAdder(), evictions = new LongAdder();
+
+  public ResponseStore() {
+    this(Long.parseLong(EnvUtils.get("rf.responses.maxBytes", String.valueOf(256L << 20))),
+        Integer.parseInt(EnvUtils.get("rf.responses.maxEntries", "10000")),
+        Double.parseDouble(EnvUtils.get("rf.responses.ttlSec", "0")),
+        Boolean.parseBoolean(EnvUtils.get("rf.responses.spill", "true"))
+            ? Paths.get(EnvUtils.get("rf.responses.spillDir", System.getProperty("java.io.tmpdir"))) : null);
+  }
+
+  /** ttlSec 0 keeps aliases until evicted by size or count; a null spillDir drops instead of spilling. */
+  public ResponseStore(long maxBytes, int maxEntries, double ttlSec, Path spillDir) {
+    this.maxBytes = maxBytes;
+    this.maxEntries = maxEntries;
+    this.ttlNanos = (long) (ttlSec * 1e9);
+    this.spillDir = spillDir;
+  }
+
+  /** Aliases of one namespace in LRU order; every field is guarded by the segment itself. */
+  private static final class Segment {
+    final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    final LinkedHashMap<String, String> dropped = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override protected boolean removeEldestEntry(Map.Entry<String, String> e) { return size() > MAX_DROPPED; }
+    };
+    boolean closed;
+  }
+
+  private static final class Entry {
+    final Segment seg;
+    final String alias;
+    final CompletableFuture<ApiResponse> future;
+    ApiResponse response; // set once the future completed and its size was counted
+    long weight;
+    boolean onDisk, removed;
+    long touched = System.nanoTime();
+    Entry(Segment seg, String alias, CompletableFuture<ApiResponse> future) {
+      this.seg = seg; this.alias = alias; this.future = future;
+    }
+  }
+
+  /** Save a (possibly pending) response under an alias of the calling namespace. */
+  public void put(String alias, CompletableFuture<ApiResponse> future) {
+    Entry e;
+    while (true) {
+      Segment seg = segments.computeIfAbsent(CallerContext.namespace(), k -> new Segment());
+      synchronized (seg) {
+        if (seg.closed) continue; // namespace cleared concurrently; take the new segment
+        e = new Entry(seg, alias, future);
+        seg.dropped.remove(alias);
+        Entry old = seg.entries.put(alias, e);
+        if (old != null) release(old); else count.incrementAndGet();
+        break;
+      }
+    }
+    Entry entry = e;
+    // sized on completion, which runs inline when the future is already done
+    future.whenComplete((r, err) -> {
+      if (r != null) completed(entry, r);
+      trim(entry.seg);
+    });
+  }
+
+  /**
+   * Response under an alias of the calling namespace, or null if it was never saved. Fails when
+   * the alias was dropped by TTL, count or heap limits, so callers never silently read another one.
+   */
+  public CompletableFuture<ApiResponse> get(String alias) {
+    Segment seg = segments.get(CallerContext.namespace());
+    if (seg == null) { misses.increment(); return null; }
+    synchronized (seg) {
+      Entry e = seg.entries.get(alias);
+      if (e != null && expired(e, System.nanoTime())) {
+        drop(e, "idle for longer than rf.responses.ttlSec");
+        expired.increment();
+        e = null;
+      }
+      if (e == null) {
+        misses.increment();
+        String why = seg.dropped.get(alias);
+        if (why != null) throw new IllegalStateException("Response under alias " + alias + " was dropped: " + why);
+        return null;
+      }
+      hits.increment();
+      e.touched = System.nanoTime();
+      return e.future;
+    }
+  }
+
+  /** Every alias of the calling namespace, oldest first, without touching LRU order. */
+  public Map<String, CompletableFuture<ApiResponse>> snapshot() {
+    Map<String, CompletableFuture<ApiResponse>> out = new LinkedHashMap<>();
+    Segment seg = segments.get(CallerContext.namespace());
+    if (seg == null) return out;
+    synchronized (seg) {
+      seg.entries.forEach((alias, e) -> out.put(alias, e.future));
+    }
+    return out;
+  }
+
+  /** Drop every alias of the calling namespace. */
+  public void removeNamespace() {
+    Segment seg = segments.remove(CallerContext.namespace());
+    if (seg == null) return;
+    synchronized (seg) {
+      seg.closed = true;
+      for (Entry e : seg.entries.values()) { release(e); count.decrementAndGet(); }
+      seg.entries.clear();
+      seg.dropped.clear();
+    }
+  }
+
+  /** Counters and current occupancy, for the stats keyword and /metrics. */
+  public Map<String, Long> stats() {
+    Map<String, Long> out = new LinkedHashMap<>();
+    out.put("entries", (long) count.get());
+    out.put("heap_bytes", heapBytes.get());
+    out.put("disk_bytes", diskBytes.get());
+    out.put("max_bytes", maxBytes);
+    out.put("hits", hits.sum());
+    out.put("misses", misses.sum());
+    out.put("spills", spills.sum());
+    out.put("expired", expired.sum());
+    out.put("evictions", evictions.sum());
+    return out;
+  }
+
+  // ---------- Internals ----------
+
+  private boolean expired(Entry e, long now) { return ttlNanos > 0 && now - e.touched > ttlNanos; }
+
+  private void completed(Entry e, ApiResponse r) {
+    synchronized (e.seg) {
+      if (e.removed) return; // replaced or evicted while in flight
+      e.response = r;
+      e.weight = r.heapBytes();
+      heapBytes.addAndGet(e.weight);
+    }
+    r.onCache(() -> reweigh(e));
+  }
+
+  /** Decoded text or a parsed tree was cached on the response after it was first counted. */
+  private void reweigh(Entry e) {
+    synchronized (e.seg) {
+      if (e.removed || e.onDisk || e.response == null) return;
+      long w = e.response.heapBytes();
+      heapBytes.addAndGet(w - e.weight);
+      e.weight = w;
+    }
+    if (heapBytes.get() > maxBytes) trim(e.seg);
+  }
+
+  /** Un-count an entry that left its segment; the caller holds the segment lock. */
+  private void release(Entry e) {
+    e.removed = true;
+    if (e.onDisk) diskBytes.addAndGet(-e.weight); else heapBytes.addAndGet(-e.weight);
+    e.weight = 0;
+  }
+
+  /** Remove an entry and remember why; the caller holds the segment lock. */
+  private void drop(Entry e, String why) {
+    e.seg.entries.remove(e.alias);
+    e.seg.dropped.put(e.alias, why);
+    release(e);
+    count.decrementAndGet();
+  }
+
+  /**
+   * Apply TTL, count and heap limits to the segment that just grew, then to the others while
+   * the store is still over budget. Segments are locked one at a time; spill I/O runs unlocked.
+   */
+  private void trim(Segment own) {
+    List<Entry> toSpill = new ArrayList<>();
+    trim(own, toSpill);
+    if (count.get() > maxEntries || heapBytes.get() > maxBytes) {
+      for (Segment seg : segments.values()) {
+        if (seg == own) continue;
+        trim(seg, toSpill);
+        if (count.get() <= maxEntries && heapBytes.get() <= maxBytes) break;
+      }
+    }
+    for (Entry e : toSpill) spill(e);
+  }
+
+  private void trim(Segment seg, List<Entry> toSpill) {
+    synchronized (seg) {
+      long now = System.nanoTime();
+      for (Iterator<Entry> it = seg.entries.values().iterator(); it.hasNext(); ) {
+        Entry e = it.next();
+        String why = null;
+        if (expired(e, now)) {
+          why = "idle for longer than rf.responses.ttlSec";
+          expired.increment();
+        } else if (count.get() > maxEntries) {
+          why = "more than rf.responses.maxEntries aliases";
+          evictions.increment();
+        } else if (heapBytes.get() <= maxBytes) {
+          break;
+        } else if (e.response == null || e.onDisk || e.weight == 0) {
+          continue;
+        } else if (spillDir == null) {
+          why = "over rf.responses.maxBytes with rf.responses.spill=false";
+          evictions.increment();
+        } else {
+          // account as spilled now; a failed spill below drops the entry instead
+          heapBytes.addAndGet(-e.weight);
+          e.weight = 0;
+          e.onDisk = true;
+          toSpill.add(e);
+          continue;
+        }
+        it.remove();
+        seg.dropped.put(e.alias, why);
+        release(e);
+        count.decrementAndGet();
+      }
+    }
+  }
+
+  private void spill(Entry e) {
+    long size;
+    try {
+      e.response.spill(spillDir);
+      size = e.response.spilledBytes();
+    } catch (IOException | RuntimeException ex) {
+      size = -1;
+    }
+    synchronized (e.seg) {
+      if (e.removed) return;
+      if (size < 0) {
+        drop(e, "spilling the body to " + spillDir + " failed");
+        evictions.increment();
+      } else {
+        e.weight = size;
+        diskBytes.addAndGet(size);
+        spills.increment();
+      }
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.example.rf.keywords.core;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Row-at-a-time JDBC helpers: statements that stream instead of buffering the whole result,
+ * and CSV / JSON Lines writers that never build a row map.
+ */
+public final class ResultSetExport {
+  private ResultSetExport() {}
+
+  private static final JsonFactory JSON = new JsonFactory();
+
+  /**
+   * Forward-only, read-only statement tuned so the driver streams rows. MySQL Connector/J only
+   * streams with {@code Integer.MIN_VALUE} unless the URL enables {@code useCursorFetch};
+   * PostgreSQL only honours the fetch size outside auto-commit. Hikari restores auto-commit
+   * when the connection goes back to the pool.
+   */
+  public static Statement streamingStatement(Connection c, String jdbcUrl, int fetchSize) throws SQLException {
+    String url = jdbcUrl == null ? "" : jdbcUrl.toLowerCase(Locale.ROOT);
+    if (url.startsWith("jdbc:postgresql:")) c.setAutoCommit(false);
+    Statement st = c.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    boolean mysql = url.startsWith("jdbc:mysql:") || url.startsWith("jdbc:mariadb:");
+    st.setFetchSize(mysql && !url.contains("usecursorfetch=true") ? Integer.MIN_VALUE : fetchSize);
+    return st;
+  }
+
+  /** RFC 4180 CSV with a header row; NULL is an empty field. Returns the row count. */
+  public static long writeCsv(ResultSet rs, Writer out) throws SQLException, IOException {
+    ResultSetMetaData md = rs.getMetaData();
+    int cols = md.getColumnCount();
+    for (int i = 1; i <= cols; i++) {
+      if (i > 1) out.write(',');
+      csvField(out, md.getColumnLabel(i));
+    }
+    out.write("\r\n");
+    long rows = 0;
+    while (rs.next()) {
+      for (int i = 1; i <= cols; i++) {
+        if (i > 1) out.write(',');
+        Object v = value(rs, md, i);
+        if (v != null) csvField(out, v instanceof byte[] ? Base64.getEncoder().encodeToString((byte[]) v) : v.toString());
+      }
+      out.write("\r\n");
+      rows++;
+    }
+    return rows;
+  }
+
+  /** One JSON object per line keyed by column label. Returns the row count. */
+  public static long writeJsonLines(ResultSet rs, Writer out) throws SQLException, IOException {
+    ResultSetMetaData md = rs.getMetaData();
+    int cols = md.getColumnCount();
+    SerializedString[] names = new SerializedString[cols + 1];
+    for (int i = 1; i <= cols; i++) names[i] = new SerializedString(md.getColumnLabel(i));
+    long rows = 0;
+    try (JsonGenerator g = JSON.createGenerator(out)) {
+      g.setRootValueSeparator(new SerializedString("\n"));
+      while (rs.next()) {
+        g.writeStartObject();
+        for (int i = 1; i <= cols; i++) {
+          g.writeFieldName(names[i]);
+          writeJson(g, value(rs, md, i));
+        }
+        g.writeEndObject();
+        rows++;
+      }
+      if (rows > 0) g.writeRaw('\n');
+    }
+    return rows;
+  }
+
+  /** Column value with LOBs read eagerly; everything else as the driver returns it. */
+  public static Object value(ResultSet rs, ResultSetMetaData md, int i) throws SQLException {
+    switch (md.getColumnType(i)) {
+      case Types.CLOB: case Types.NCLOB: return rs.getString(i);
+      case Types.BLOB: return rs.getBytes(i);
+      default:
+        Object v = rs.getObject(i);
+        if (v instanceof Clob) return rs.getString(i);
+        if (v instanceof Blob) return rs.getBytes(i);
+        return v;
+    }
+  }
+
+  private static void writeJson(JsonGenerator g, Object v) throws IOException {
+    if (v == null) g.writeNull();
+    else if (v instanceof String) g.writeString((String) v);
+    else if (v instanceof Integer || v instanceof Long || v instanceof Short || v instanceof Byte) g.writeNumber(((Number) v).longValue());
+    else if (v instanceof BigDecimal) g.writeNumber((BigDecimal) v);
+    else if (v instanceof BigInteger) g.writeNumber((BigInteger) v);
+    else if (v instanceof Double || v instanceof Float) g.writeNumber(((Number) v).doubleValue());
+    else if (v instanceof Boolean) g.writeBoolean((Boolean) v);
+    else if (v instanceof byte[]) g.writeBinary((byte[]) v);
+    else g.writeString(v.toString()); // dates, times, UUIDs: their SQL literal form
+  }
+
+  private static void csvField(Writer out, String s) throws IOException {
+    boolean quote = false;
+    for (int i = 0; i < s.length() && !quote; i++) {
+      char ch = s.charAt(i);
+      quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+    }
+    if (!quote) { out.write(s); return; }
+    out.write('"');
+    out.write(s.replace("\"", "\"\""));
+    out.write('"');
+  }
+}
@@ -0,0 +1,162 @@
+package com.example.rf.keywords.core;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Rows for bulk loads, read one at a time: an in-memory list (of lists or dicts), a JSON
+ * array string, or a path to a {@code .csv} (header row, RFC 4180) or {@code .jsonl} file.
+ * Each row is a {@code List} or a {@code Map} keyed by column name. Unquoted empty CSV fields
+ * are NULL; {@code ""} is an empty string.
+ */
+public final class RowSource implements Iterator<Object>, Closeable {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final Iterator<?> rows;
+  private final Closeable resource;
+
+  private RowSource(Iterator<?> rows, Closeable resource) {
+    this.rows = rows;
+    this.resource = resource;
+  }
+
+  public static RowSource open(Object rows) {
+    if (rows instanceof Object[]) rows = List.of((Object[]) rows);
+    if (rows instanceof List) return new RowSource(((List<?>) rows).iterator(), null);
+    String s = String.valueOf(rows).trim();
+    try {
+      if (s.startsWith("[")) return jsonArray(s);
+      String lower = s.toLowerCase();
+      Path p = Path.of(s);
+      if (lower.endsWith(".csv")) return csv(Files.newBufferedReader(p, StandardCharsets.UTF_8));
+      if (lower.endsWith(".jsonl") || lower.endsWith(".ndjson")) return jsonLines(p);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot read rows from " + s + ": " + e.getMessage(), e);
+    }
+    throw new IllegalArgumentException("Rows must be a list, a JSON array, or a .csv/.jsonl file. Got: " + s);
+  }
+
+  @Override public boolean hasNext() { return rows.hasNext(); }
+
+  @Override public Object next() { return rows.next(); }
+
+  @Override public void close() {
+    if (resource == null) return;
+    try { resource.close(); } catch (IOException ignored) { /* read-only source */ }
+  }
+
+  private static RowSource jsonArray(String json) throws IOException {
+    return new RowSource(MAPPER.readValue(json, List.class).iterator(), null);
+  }
+
+  private static RowSource jsonLines(Path p) throws IOException {
+    JsonParser parser = MAPPER.getFactory().createParser(Files.newBufferedReader(p, StandardCharsets.UTF_8));
+    Iterator<Object> it = new Iterator<>() {
+      Object next = advance();
+      private Object advance() {
+        try {
+          JsonToken t = parser.nextToken();
+          return t == null ? null : MAPPER.readValue(parser, Object.class);
+        } catch (IOException e) {
+          throw new UncheckedIOException("Bad JSON line " + parser.currentLocation().getLineNr() + " in " + p, e);
+        }
+      }
+      @Override public boolean hasNext() { return next != null; }
+      @Override public Object next() {
+        if (next == null) throw new NoSuchElementException();
+        Object r = next;
+        next = advance();
+        return r;
+      }
+    };
+    return new RowSource(it, parser);
+  }
+
+  private static RowSource csv(BufferedReader in) throws IOException {
+    CsvReader r = new CsvReader(in);
+    List<String> header = r.record();
+    if (header == null) return new RowSource(List.of().iterator(), in);
+    Iterator<Object> it = new Iterator<>() {
+      List<String> next = r.record();
+      @Override public boolean hasNext() { return next != null; }
+      @Override public Object next() {
+        if (next == null) throw new NoSuchElementException();
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) row.put(header.get(i), i < next.size() ? next.get(i) : null);
+        try { next = r.record(); } catch (IOException e) { throw new UncheckedIOException(e); }
+        return row;
+      }
+    };
+    return new RowSource(it, in);
+  }
+
+  /** Minimal RFC 4180 reader: quoted fields may hold commas, quotes ("") and line breaks. */
+  private static final class CsvReader {
+    private final Reader in;
+    private int peeked = -2;
+
+    CsvReader(Reader in) { this.in = in; }
+
+    private int read() throws IOException {
+      if (peeked != -2) { int c = peeked; peeked = -2; return c; }
+      return in.read();
+    }
+
+    /** Next record, or null at end of input; blank lines are skipped. */
+    List<String> record() throws IOException {
+      List<String> out = new ArrayList<>();
+      StringBuilder field = new StringBuilder();
+      boolean quoted = false, any = false;
+      for (int c; ; ) {
+        c = read();
+        if (c == -1) {
+          if (!any && field.length() == 0 && out.isEmpty()) return null;
+          out.add(quoted || field.length() > 0 ? field.toString() : null);
+          return out;
+        }
+        any = true;
+        if (c == '"' && field.length() == 0 && !quoted) {
+          quoted = true;
+          for (int d; ; ) {
+            d = read();
+            if (d == -1) break;
+            if (d == '"') {
+              int e = read();
+              if (e == '"') { field.append('"'); continue; }
+              peeked = e;
+              break;
+            }
+            field.append((char) d);
+          }
+        } else if (c == ',') {
+          out.add(quoted || field.length() > 0 ? field.toString() : null);
+          field.setLength(0);
+          quoted = false;
+        } else if (c == '\n' || c == '\r') {
+          if (c == '\r') { int d = read(); if (d != '\n') peeked = d; }
+          if (out.isEmpty() && field.length() == 0 && !quoted) { any = false; continue; } // blank line
+          out.add(quoted || field.length() > 0 ? field.toString() : null);
+          return out;
+        } else {
+          field.append((char) c);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,521 @@
+package com.example.rf.keywords.core;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-process HTTP stub on the JDK's NIO {@link HttpServer}, so REST suites and load tests run
+ * without a network. A request is answered by, in order: the newest stub matching it (exact
+ * paths before prefix/regex paths), the recorder when one is running (proxy to the target and
+ * save the exchange), echo mode (postman-echo shaped JSON), or a 404.
+ *
+ * <p>Stub responses are encoded once when the stub is added. Injected latency is served from a
+ * scheduler, not by sleeping, so a slow stub does not hold a handler thread.
+ */
+public final class StubServer implements Closeable {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final Map<String, String> JSON = Map.of("Content-Type", "application/json");
+  /** Not copied between the client and the recorded target, nor written to recordings. */
+  private static final Set<String> HOP_HEADERS = Set.of("connection", "content-length", "date", "expect", "host",
+      "http2-settings", "keep-alive", "proxy-connection", "te", "trailer", "transfer-encoding", "upgrade");
+  private static final long MAX_ECHO_DELAY_SEC = 10;
+
+  private static final class Holder {
+    static final HttpClient PROXY = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(30))
+        .build();
+  }
+
+  /** A canned response and what a request must look like to get it. */
+  public static final class Stub {
+    final long id;
+    final String method;
+    final String path;
+    final boolean prefix;
+    final Pattern pathRegex;
+    final Map<String, List<String>> query;
+    final String body;
+    final Pattern bodyRegex;
+    final boolean bodyExact;
+    final int status;
+    final Map<String, String> headers;
+    final byte[] response;
+    final long latencyMs;
+    final LongAdder hits = new LongAdder();
+
+    /**
+     * @param path exact path, {@code /prefix/*} or {@code regex:...}
+     * @param query required parameters; the request may carry more
+     * @param body request body matcher: text it must contain, {@code regex:...} or {@code exact:...}
+     */
+    public Stub(long id, String method, String path, Map<String, List<String>> query, String body,
+                int status, Map<String, String> headers, byte[] response, long latencyMs) {
+      this.id = id;
+      this.method = method == null || method.isBlank() ? "*" : method.trim().toUpperCase(Locale.ROOT);
+      String p = path == null || path.isBlank() ? "/" : path.trim();
+      if (p.startsWith("regex:")) {
+        this.pathRegex = Pattern.compile(p.substring(6));
+        this.prefix = false;
+        this.path = p;
+      } else {
+        this.pathRegex = null;
+        this.prefix = p.endsWith("*");
+        this.path = prefix ? p.substring(0, p.length() - 1) : p;
+      }
+      this.query = query == null ? Map.of() : query;
+      String b = body == null ? "" : body;
+      this.bodyRegex = b.startsWith("regex:") ? Pattern.compile(b.substring(6), Pattern.DOTALL) : null;
+      this.bodyExact = b.startsWith("exact:");
+      this.body = bodyExact ? b.substring(6) : b;
+      this.status = status;
+      this.headers = headers == null ? Map.of() : headers;
+      this.response = response == null ? new byte[0] : response;
+      this.latencyMs = latencyMs;
+    }
+
+    public long id() { return id; }
+
+    boolean exactPath() { return pathRegex == null && !prefix; }
+
+    boolean matches(Request r) {
+      if (!"*".equals(method) && !method.equals(r.method)) return false;
+      if (pathRegex != null) {
+        if (!pathRegex.matcher(r.path).matches()) return false;
+      } else if (prefix ? !r.path.startsWith(path) : !path.equals(r.path)) {
+        return false;
+      }
+      for (Map.Entry<String, List<String>> q : query.entrySet()) {
+        if (!q.getValue().equals(r.query.get(q.getKey()))) return false;
+      }
+      if (bodyRegex != null) return bodyRegex.matcher(r.text()).matches();
+      if (bodyExact) return body.equals(r.text());
+      return body.isEmpty() || r.text().contains(body);
+    }
+
+    Map<String, Object> toMap() {
+      Map<String, Object> m = new LinkedHashMap<>();
+      m.put("id", id);
+      m.put("method", method);
+      m.put("path", prefix ? path + "*" : path);
+      m.put("status", status);
+      m.put("hits", hits.sum());
+      return m;
+    }
+  }
+
+  /** The parts of a request the matchers, echo and recorder look at; body text decoded on first use. */
+  private static final class Request {
+    final String method;
+    final String path;
+    final String rawQuery;
+    final Map<String, List<String>> query;
+    final byte[] body;
+    private String text;
+
+    Request(String method, String path, String rawQuery, byte[] body) {
+      this.method = method;
+      this.path = path;
+      this.rawQuery = rawQuery;
+      this.query = parseQuery(rawQuery);
+      this.body = body;
+    }
+
+    String text() {
+      if (text == null) text = new String(body, StandardCharsets.UTF_8);
+      return text;
+    }
+  }
+
+  /** Proxies unmatched requests to a target and writes one JSON file per exchange. */
+  private static final class Recorder {
+    final URI target;
+    final Path dir;
+    final AtomicInteger seq = new AtomicInteger();
+
+    Recorder(URI target, Path dir) {
+      this.target = target;
+      this.dir = dir;
+    }
+  }
+
+  private final String name;
+  private final HttpServer server;
+  private final ExecutorService handlers;
+  private final ScheduledExecutorService delays;
+  private final AtomicLong ids = new AtomicLong();
+  /** Exact-path stubs by path, newest first; looked up before {@link #patterns}. */
+  private final Map<String, List<Stub>> byPath = new ConcurrentHashMap<>();
+  /** Prefix and regex stubs, newest first. */
+  private final List<Stub> patterns = new CopyOnWriteArrayList<>();
+  private volatile boolean echo;
+  private volatile long latencyMs;
+  private volatile long jitterMs;
+  private volatile Recorder recorder;
+
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder matched = new LongAdder();
+  private final LongAdder echoed = new LongAdder();
+  private final LongAdder recorded = new LongAdder();
+  private final LongAdder unmatched = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+
+  public StubServer(String name, String host, int port, int threads) throws IOException {
+    this.name = name;
+    int n = threads > 0 ? threads : Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    AtomicInteger tn = new AtomicInteger();
+    this.handlers = Executors.newFixedThreadPool(n, r -> daemon(r, "rf-stub-" + name + "-" + tn.incrementAndGet()));
+    this.delays = Executors.newScheduledThreadPool(2, r -> daemon(r, "rf-stub-" + name + "-delay"));
+    this.server = HttpServer.create(new InetSocketAddress(host, port), 1024);
+    server.createContext("/", this::handle);
+    server.setExecutor(handlers);
+  }
+
+  private static Thread daemon(Runnable r, String name) {
+    Thread t = new Thread(r, name);
+    t.setDaemon(true);
+    return t;
+  }
+
+  public void start() { server.start(); }
+
+  @Override public void close() {
+    server.stop(0);
+    handlers.shutdownNow();
+    delays.shutdownNow();
+  }
+
+  public String name() { return name; }
+
+  public String baseUrl() {
+    InetSocketAddress a = server.getAddress();
+    return "http://" + a.getHostString() + ":" + a.getPort();
+  }
+
+  // ---------- Configuration ----------
+
+  public Stub add(String method, String path, Map<String, List<String>> query, String body,
+                  int status, Map<String, String> headers, byte[] response, long latencyMs) {
+    Stub s = new Stub(ids.incrementAndGet(), method, path, query, body, status, headers, response, latencyMs);
+    if (s.exactPath()) byPath.computeIfAbsent(s.path, k -> new CopyOnWriteArrayList<>()).add(0, s);
+    else patterns.add(0, s);
+    return s;
+  }
+
+  public void clear() {
+    byPath.clear();
+    patterns.clear();
+  }
+
+  public void echo(boolean on) { echo = on; }
+
+  public void latency(long ms, long jitter) {
+    latencyMs = Math.max(0, ms);
+    jitterMs = Math.max(0, jitter);
+  }
+
+  public void startRecording(String targetUrl, Path dir) {
+    try {
+      Files.createDirectories(dir);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    String t = targetUrl.endsWith("/") ? targetUrl.substring(0, targetUrl.length() - 1) : targetUrl;
+    recorder = new Recorder(URI.create(t), dir);
+  }
+
+  /** Stops recording; returns the number of exchanges written by this recording. */
+  public int stopRecording() {
+    Recorder r = recorder;
+    recorder = null;
+    return r == null ? 0 : r.seq.get();
+  }
+
+  /**
+   * Adds every recording in {@code dir} (files in name order, so later exchanges win) as a stub
+   * on method, path, query and exact body. Returns the number loaded.
+   */
+  public int load(Path dir, boolean withLatency) {
+    List<Path> files;
+    try (Stream<Path> s = Files.list(dir)) {
+      files = s.filter(p -> p.getFileName().toString().endsWith(".json")).sorted().collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    for (Path f : files) {
+      JsonNode root;
+      try {
+        root = MAPPER.readTree(f.toFile());
+      } catch (IOException e) {
+        throw new IllegalArgumentException("Not a stub recording: " + f, e);
+      }
+      JsonNode req = root.path("request"), resp = root.path("response");
+      Map<String, List<String>> query = MAPPER.convertValue(req.path("query"),
+          new TypeReference<Map<String, List<String>>>() {});
+      Map<String, String> headers = MAPPER.convertValue(resp.path("headers"),
+          new TypeReference<Map<String, String>>() {});
+      String reqBody = req.path("body").asText("");
+      byte[] body = resp.has("bodyBase64")
+          ? Base64.getDecoder().decode(resp.path("bodyBase64").asText())
+          : resp.path("body").asText("").getBytes(StandardCharsets.UTF_8);
+      add(req.path("method").asText(), req.path("path").asText(), query,
+          reqBody.isEmpty() ? "" : "exact:" + reqBody, resp.path("status").asInt(200), headers, body,
+          withLatency ? root.path("elapsedMs").asLong(0) : 0);
+    }
+    return files.size();
+  }
+
+  public Map<String, Object> stats() {
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("baseUrl", baseUrl());
+    m.put("requests", requests.sum());
+    m.put("matched", matched.sum());
+    m.put("echoed", echoed.sum());
+    m.put("recorded", recorded.sum());
+    m.put("unmatched", unmatched.sum());
+    m.put("errors", errors.sum());
+    m.put("echo", echo);
+    m.put("recording", recorder != null);
+    List<Map<String, Object>> stubs = new ArrayList<>();
+    byPath.values().forEach(l -> l.forEach(s -> stubs.add(s.toMap())));
+    patterns.forEach(s -> stubs.add(s.toMap()));
+    stubs.sort((a, b) -> Long.compare((Long) a.get("id"), (Long) b.get("id")));
+    m.put("stubs", stubs);
+    return m;
+  }
+
+  public long requests() { return requests.sum(); }
+
+  // ---------- Request handling ----------
+
+  private void handle(HttpExchange ex) {
+    requests.increment();
+    try {
+      URI uri = ex.getRequestURI();
+      Request r = new Request(ex.getRequestMethod().toUpperCase(Locale.ROOT), uri.getPath(), uri.getRawQuery(),
+          ex.getRequestBody().readAllBytes());
+      Stub s = find(r);
+      if (s != null) {
+        s.hits.increment();
+        matched.increment();
+        reply(ex, s.status, s.headers, s.response, s.latencyMs);
+        return;
+      }
+      Recorder rec = recorder;
+      if (rec != null) {
+        record(ex, r, rec);
+        return;
+      }
+      if (echo) {
+        echo(ex, r);
+        return;
+      }
+      unmatched.increment();
+      Map<String, Object> err = new LinkedHashMap<>();
+      err.put("error", "No stub matched");
+      err.put("method", r.method);
+      err.put("path", r.path);
+      reply(ex, 404, JSON, MAPPER.writeValueAsBytes(err), 0);
+    } catch (Exception e) {
+      errors.increment();
+      try {
+        reply(ex, 500, Map.of("Content-Type", "text/plain; charset=utf-8"),
+            String.valueOf(e).getBytes(StandardCharsets.UTF_8), 0);
+      } catch (RuntimeException ignored) {
+        ex.close();
+      }
+    }
+  }
+
+  private Stub find(Request r) {
+    List<Stub> exact = byPath.get(r.path);
+    if (exact != null) {
+      for (Stub s : exact) if (s.matches(r)) return s;
+    }
+    for (Stub s : patterns) if (s.matches(r)) return s;
+    return null;
+  }
+
+  /** Sends now, or from the scheduler when a latency is configured. */
+  private void reply(HttpExchange ex, int status, Map<String, String> headers, byte[] body, long extraMs) {
+    long delay = extraMs + latencyMs;
+    long jitter = jitterMs;
+    if (jitter > 0) delay += ThreadLocalRandom.current().nextLong(jitter + 1);
+    if (delay <= 0) {
+      write(ex, status, headers, body);
+    } else {
+      delays.schedule(() -> write(ex, status, headers, body), delay, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void write(HttpExchange ex, int status, Map<String, String> headers, byte[] body) {
+    try {
+      Headers h = ex.getResponseHeaders();
+      headers.forEach(h::add);
+      boolean noBody = body.length == 0 || "HEAD".equals(ex.getRequestMethod()) || status == 204 || status == 304;
+      ex.sendResponseHeaders(status, noBody ? -1 : body.length);
+      if (!noBody) ex.getResponseBody().write(body);
+    } catch (IOException e) {
+      errors.increment();
+    } finally {
+      ex.close();
+    }
+  }
+
+  // ---------- Echo ----------
+
+  /** postman-echo shaped reply: args, data, form, headers, json, url; plus /status/{code} and /delay/{sec}. */
+  private void echo(HttpExchange ex, Request r) throws IOException {
+    echoed.increment();
+    if (r.path.startsWith("/status/")) {
+      int code = Integer.parseInt(r.path.substring(8));
+      reply(ex, code, JSON, MAPPER.writeValueAsBytes(Map.of("status", code)), 0);
+      return;
+    }
+    if (r.path.startsWith("/delay/")) {
+      long sec = Math.min(MAX_ECHO_DELAY_SEC, Long.parseLong(r.path.substring(7)));
+      reply(ex, 200, JSON, MAPPER.writeValueAsBytes(Map.of("delay", String.valueOf(sec))), sec * 1000);
+      return;
+    }
+    Headers in = ex.getRequestHeaders();
+    String type = in.getFirst("Content-Type");
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("args", flatten(r.query));
+    m.put("data", r.text());
+    m.put("form", type != null && type.startsWith("application/x-www-form-urlencoded")
+        ? flatten(parseQuery(r.text())) : Map.of());
+    Map<String, String> headers = new LinkedHashMap<>();
+    in.forEach((k, v) -> headers.put(k.toLowerCase(Locale.ROOT), String.join(", ", v)));
+    m.put("headers", headers);
+    JsonNode json = null;
+    if (type != null && type.contains("json") && r.body.length > 0) {
+      try { json = MAPPER.readTree(r.body); } catch (IOException ignored) { /* left null, as postman-echo does */ }
+    }
+    m.put("json", json);
+    String host = in.getFirst("Host");
+    m.put("url", "http://" + (host == null ? baseUrl().substring(7) : host) + ex.getRequestURI());
+    m.put("method", r.method);
+    reply(ex, 200, JSON, MAPPER.writeValueAsBytes(m), 0);
+  }
+
+  private static Map<String, Object> flatten(Map<String, List<String>> q) {
+    Map<String, Object> out = new LinkedHashMap<>();
+    q.forEach((k, v) -> out.put(k, v.size() == 1 ? v.get(0) : v));
+    return out;
+  }
+
+  // ---------- Recording ----------
+
+  private void record(HttpExchange ex, Request r, Recorder rec) throws IOException, InterruptedException {
+    URI uri = URI.create(rec.target + r.path + (r.rawQuery == null ? "" : "?" + r.rawQuery));
+    HttpRequest.Builder b = HttpRequest.newBuilder(uri)
+        .method(r.method, r.body.length == 0 ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofByteArray(r.body));
+    ex.getRequestHeaders().forEach((k, vs) -> {
+      if (HOP_HEADERS.contains(k.toLowerCase(Locale.ROOT))) return;
+      for (String v : vs) {
+        try { b.header(k, v); } catch (IllegalArgumentException ignored) { /* restricted by the JDK client */ }
+      }
+    });
+    long t0 = System.nanoTime();
+    HttpResponse<byte[]> resp = Holder.PROXY.send(b.build(), HttpResponse.BodyHandlers.ofByteArray());
+    long elapsedMs = (System.nanoTime() - t0) / 1_000_000L;
+
+    Map<String, String> headers = new LinkedHashMap<>();
+    resp.headers().map().forEach((k, v) -> {
+      if (!HOP_HEADERS.contains(k.toLowerCase(Locale.ROOT)) && !k.startsWith(":")) headers.put(k, String.join(", ", v));
+    });
+    save(rec, r, resp.statusCode(), headers, resp.body(), elapsedMs);
+    recorded.increment();
+    write(ex, resp.statusCode(), headers, resp.body());
+  }
+
+  private static void save(Recorder rec, Request r, int status, Map<String, String> headers, byte[] body, long elapsedMs)
+      throws IOException {
+    Map<String, Object> req = new LinkedHashMap<>();
+    req.put("method", r.method);
+    req.put("path", r.path);
+    req.put("query", r.query);
+    req.put("body", r.text());
+    Map<String, Object> resp = new LinkedHashMap<>();
+    resp.put("status", status);
+    resp.put("headers", headers);
+    if (isText(headers)) resp.put("body", new String(body, StandardCharsets.UTF_8));
+    else resp.put("bodyBase64", Base64.getEncoder().encodeToString(body));
+    Map<String, Object> root = new LinkedHashMap<>();
+    root.put("request", req);
+    root.put("response", resp);
+    root.put("elapsedMs", elapsedMs);
+
+    String slug = r.path.replaceAll("[^A-Za-z0-9]+", "_");
+    if (slug.length() > 80) slug = slug.substring(0, 80);
+    Path f = rec.dir.resolve(String.format("%06d-%s%s.json", rec.seq.incrementAndGet(), r.method, slug));
+    MAPPER.writerWithDefaultPrettyPrinter().writeValue(f.toFile(), root);
+  }
+
+  private static boolean isText(Map<String, String> headers) {
+    String type = "", encoding = null;
+    for (Map.Entry<String, String> h : headers.entrySet()) {
+      if ("content-type".equalsIgnoreCase(h.getKey())) type = h.getValue().toLowerCase(Locale.ROOT);
+      if ("content-encoding".equalsIgnoreCase(h.getKey())) encoding = h.getValue();
+    }
+    if (encoding != null && !"identity".equalsIgnoreCase(encoding)) return false;
+    return type.isEmpty() || type.startsWith("text/") || type.contains("json") || type.contains("xml")
+        || type.contains("javascript") || type.contains("x-www-form-urlencoded");
+  }
+
+  // ---------- Helpers ----------
+
+  /** {@code a=1&b=2&a=3} to {@code {a: [1, 3], b: [2]}}, percent-decoded. */
+  public static Map<String, List<String>> parseQuery(String raw) {
+    if (raw == null || raw.isEmpty()) return Map.of();
+    Map<String, List<String>> out = new LinkedHashMap<>();
+    for (String pair : raw.split("&")) {
+      if (pair.isEmpty()) continue;
+      int eq = pair.indexOf('=');
+      String k = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+      String v = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+      out.computeIfAbsent(k, x -> new ArrayList<>()).add(v);
+    }
+    return out;
+  }
+}
@@ -1,36 +1,266 @@
 package com.example.rf.keywords.core;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
-/** Resolve ${env:FOO}, ${now:iso}, and ${key} (from vars map). */
+/**
+ * Resolve ${env:FOO}, ${now:iso}, and ${key} (from vars map).
+ *
+ * <p>A template is compiled once into literal runs and placeholders, cached by its text, and
+ * rendered in one left-to-right pass into a per-thread builder. The compiled cache is an LRU
+ * bounded by entry count and by source size ({@code rf.templates.cacheBytes}); templates larger
+ * than a quarter of it are compiled on every call. Placeholders without a value are left as
+ * written, and an unclosed {@code ${} before another placeholder stays literal text. Env lookups
+ * are memoized for the life of the process; see {@link #clearEnvCache()}.
+ */
 public final class TemplateUtils {
   private TemplateUtils(){}
 
-  private static final Pattern ENV_PATTERN = Pattern.compile("\\$\\{env:([A-Za-z0-9_]+)}");
+  private static final Pattern ENV_NAME = Pattern.compile("[A-Za-z0-9_]+");
+  private static final int MAX_COMPILED = 1024;
+  private static final long MAX_COMPILED_BYTES = Long.parseLong(EnvUtils.get("rf.templates.cacheBytes", "16777216"));
+  /** Longest placeholder the streaming renderer buffers before treating it as plain text. */
+  private static final int MAX_NAME = 256;
+  /** Builders that grew past this are not kept for the next render. */
+  private static final int MAX_KEPT = 1 << 20;
+
+  /** Access-ordered; guarded by itself together with {@link #compiledBytes}. */
+  private static final LinkedHashMap<String, Template> COMPILED = new LinkedHashMap<>(16, 0.75f, true);
+  private static long compiledBytes;
+  private static final Map<String, String> ENV = new ConcurrentHashMap<>();
+  private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+  /** Value for a placeholder name; null leaves the placeholder in the output. */
+  @FunctionalInterface
+  public interface Resolver {
+    Object resolve(String name);
+  }
 
   public static String resolve(String text, Map<String,String> vars) {
-    String out = text;
+    return compile(text).render(vars(vars));
+  }
+
+  /** Compiled template, cached by source text. */
+  public static Template compile(String text) {
+    long weight = weight(text);
+    if (weight > MAX_COMPILED_BYTES / 4) return parse(text);
+    Template t;
+    synchronized (COMPILED) {
+      t = COMPILED.get(text);
+    }
+    if (t != null) return t;
+    t = parse(text);
+    synchronized (COMPILED) {
+      if (COMPILED.put(text, t) == null) compiledBytes += weight;
+      Iterator<String> it = COMPILED.keySet().iterator();
+      while ((compiledBytes > MAX_COMPILED_BYTES || COMPILED.size() > MAX_COMPILED) && it.hasNext()) {
+        compiledBytes -= weight(it.next());
+        it.remove();
+      }
+    }
+    return t;
+  }
+
+  /**
+   * Resolver over a map. {@link Supplier} values are called on first use only, so expensive
+   * values cost nothing when the template does not reference them. Memoized per resolver:
+   * make a new one per render for fresh values.
+   */
+  public static Resolver vars(Map<String, ?> vars) {
+    if (vars == null || vars.isEmpty()) return name -> null;
+    Map<String, Object> memo = new HashMap<>();
+    return name -> {
+      Object v = vars.get(name);
+      if (!(v instanceof Supplier)) return v;
+      return memo.computeIfAbsent(name, k -> ((Supplier<?>) v).get());
+    };
+  }
+
+  /** {@link EnvUtils#get} with "" as default, looked up once per key. */
+  public static String env(String key) {
+    return ENV.computeIfAbsent(key, k -> EnvUtils.get(k, ""));
+  }
+
+  /** Forgets memoized env values, e.g. after a test changes a system property. */
+  public static void clearEnvCache() { ENV.clear(); }
+
+  /**
+   * Renders a template file straight to {@code out} without holding either in memory; for
+   * large files rendered once. Templates rendered repeatedly are faster through
+   * {@link #compile(String)}.
+   */
+  public static void renderFile(Path template, Writer out, Resolver vars) {
+    try (Reader in = Files.newBufferedReader(template, StandardCharsets.UTF_8)) {
+      renderStream(in, out, vars);
+    } catch (IOException e) { throw new UncheckedIOException(e); }
+  }
+
+  public static void renderFile(Path template, Path out, Resolver vars) {
+    try {
+      if (out.getParent()!=null) Files.createDirectories(out.getParent());
+      try (Writer w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+        renderFile(template, w, vars);
+      }
+    } catch (IOException e) { throw new UncheckedIOException(e); }
+  }
+
+  /** Literal runs around placeholders: {@code text[0] slot[0] text[1] ... text[n]}. */
+  public static final class Template {
+    private final String[] text;
+    private final Slot[] slots;
+    private final int literalLength;
 
-    // ${env:FOO}
-    Matcher m = ENV_PATTERN.matcher(out);
-    StringBuffer sb = new StringBuffer();
-    while (m.find()) {
-      String key = m.group(1);
-      String val = EnvUtils.get(key, "");
-      m.appendReplacement(sb, Matcher.quoteReplacement(val));
+    private Template(String[] text, Slot[] slots) {
+      this.text = text;
+      this.slots = slots;
+      int n = 0;
+      for (String s : text) n += s.length();
+      this.literalLength = n;
     }
-    m.appendTail(sb);
-    out = sb.toString();
 
-    // ${now:iso}
-    out = out.replace("${now:iso}", DateTimeFormatter.ISO_INSTANT.format(Instant.now()));
+    public String render(Map<String, ?> vars) { return render(vars(vars)); }
 
-    // ${key} from vars
-    for (var e : vars.entrySet()) out = out.replace("${"+e.getKey()+"}", e.getValue());
-    return out;
+    public String render(Resolver vars) {
+      if (slots.length == 0) return text[0];
+      StringBuilder sb = BUILDER.get();
+      sb.setLength(0);
+      sb.ensureCapacity(literalLength + 16 * slots.length);
+      try {
+        renderTo(sb, vars);
+      } catch (IOException e) { throw new UncheckedIOException(e); } // StringBuilder does not throw
+      String s = sb.toString();
+      if (sb.capacity() > MAX_KEPT) BUILDER.remove();
+      return s;
+    }
+
+    public void renderTo(Appendable out, Resolver vars) throws IOException {
+      String now = null;
+      out.append(text[0]);
+      for (int i = 0; i < slots.length; i++) {
+        Slot s = slots[i];
+        if (s.kind == Slot.NOW) {
+          if (now == null) now = now();
+          out.append(now);
+        } else {
+          out.append(s.value(vars));
+        }
+        out.append(text[i + 1]);
+      }
+    }
+
+    /** Number of placeholders. */
+    public int size() { return slots.length; }
+  }
+
+  private static final class Slot {
+    static final int VAR = 0, ENV = 1, NOW = 2;
+    final int kind;
+    final String name, raw;
+
+    Slot(String name) {
+      this.raw = "${" + name + "}";
+      if (name.equals("now:iso")) {
+        kind = NOW;
+        this.name = name;
+      } else if (name.startsWith("env:") && ENV_NAME.matcher(name.substring(4)).matches()) {
+        kind = ENV;
+        this.name = name.substring(4);
+      } else {
+        kind = VAR;
+        this.name = name;
+      }
+    }
+
+    String value(Resolver vars) {
+      if (kind == ENV) return env(name);
+      if (kind == NOW) return now();
+      Object v = vars.resolve(name);
+      return v == null ? raw : String.valueOf(v);
+    }
   }
+
+  private static Template parse(String src) {
+    List<String> text = new ArrayList<>();
+    List<Slot> slots = new ArrayList<>();
+    int from = 0, at;
+    while ((at = src.indexOf("${", from)) >= 0) {
+      int close = src.indexOf('}', at + 2);
+      if (close < 0) break;
+      // "${a ${b}": the placeholder is the innermost ${...}; the unclosed opener is text
+      at = src.lastIndexOf("${", close);
+      text.add(src.substring(from, at));
+      slots.add(new Slot(src.substring(at + 2, close)));
+      from = close + 1;
+    }
+    text.add(src.substring(from));
+    return new Template(text.toArray(new String[0]), slots.toArray(new Slot[0]));
+  }
+
+  private static void renderStream(Reader in, Writer out, Resolver vars) throws IOException {
+    Reader r = in instanceof BufferedReader ? in : new BufferedReader(in);
+    StringBuilder name = new StringBuilder();
+    String now = null;
+    int c;
+    while ((c = r.read()) >= 0) {
+      if (c != '$') { out.write(c); continue; }
+      r.mark(1);
+      int next = r.read();
+      if (next != '{') {
+        out.write('$');
+        if (next >= 0) r.reset();
+        continue;
+      }
+      name.setLength(0);
+      while ((c = r.read()) >= 0 && c != '}' && name.length() < MAX_NAME) {
+        if (c == '$') {
+          r.mark(1);
+          if (r.read() == '{') {
+            // a new placeholder starts before this one closed: what was buffered is text
+            out.write("${");
+            out.append(name);
+            name.setLength(0);
+            continue;
+          }
+          r.reset();
+        }
+        name.append((char) c);
+      }
+      if (c != '}') {
+        // unterminated or too long: plain text, like the compiled parser
+        out.write("${");
+        out.append(name);
+        if (c >= 0) out.write(c);
+        continue;
+      }
+      Slot s = new Slot(name.toString());
+      if (s.kind == Slot.NOW) {
+        if (now == null) now = now();
+        out.write(now);
+      } else {
+        out.write(s.value(vars));
+      }
+    }
+  }
+
+  /** Source text kept as the key plus its literal runs, both UTF-16. */
+  private static long weight(String text) { return 4L * text.length(); }
+
+  private static String now() { return DateTimeFormatter.ISO_INSTANT.format(Instant.now()); }
 }